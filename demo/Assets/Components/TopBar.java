@@ -41,7 +41,7 @@ public class TopBar implements MonoBehaviour {
     // Called by GameScene when hover tile changes
     public void setHoverText(String text) {
         this.hoverText = text == null ? "" : text;
-        currScene.requestRender();
+        currScene.requestRender(this);
     }
 
     // Called when switching into command mode AFTER ':' was consumed by outer
@@ -49,7 +49,7 @@ public class TopBar implements MonoBehaviour {
     public void beginCommandMode() {
         inputBuffer.setLength(0);
         inputBuffer.append(':');
-        currScene.requestRender();
+        currScene.requestRender(this);
     }
 
     @Override
@@ -79,7 +79,7 @@ public class TopBar implements MonoBehaviour {
             } else {
                 inputBuffer.append(key);
             }
-            currScene.requestRender();
+            currScene.requestRender(this);
         }
     }
 
@@ -96,7 +96,7 @@ public class TopBar implements MonoBehaviour {
             if (currScene instanceof GameScene gs) {
                 gs.saveGame();
             }
-            currScene.requestRender();
+            currScene.requestRender(this);
         }
         if (command.equals(":B")) {
             // Go back to an intro scene
@@ -104,7 +104,7 @@ public class TopBar implements MonoBehaviour {
         }
         if (command.equals(":T")) { // allow :t toggling path while in command mode
             GhostToggleHelper.toggle();
-            currScene.requestRender();
+            currScene.requestRender(); // path overlay lives in the entity layer
         }
     }
 
@@ -3,34 +3,82 @@ package Assets.Entities;
 import Engine.Graphics.Renderer;
 import Engine.Graphics.tileengine.TETile;
 import Engine.Input.InputAction;
+import Engine.Pathfinding.FlowField;
+import Engine.Pathfinding.Grid;
+import Engine.Pathfinding.GridPathfinder;
+import Engine.Pathfinding.PathService;
+import Engine.Scene.AiScheduler;
+import Engine.Scene.Camera;
 import Engine.Scene.Entity;
+import Engine.Scene.LodAware;
 import Engine.Scene.Scene;
+import Engine.Scene.SimulationLod;
+import Engine.Scene.TileMap;
+import Engine.Scene.TimerWheel;
 import Engine.Utils.Vector2i;
+import Engine.Vision.Visibility;
 import core.CustomConfig;
 import java.awt.Color;
 import java.util.*;
 import java.util.function.Supplier;
 
-public class Ghost extends Entity {
+public class Ghost extends Entity implements LodAware {
 
     private Supplier<Vector2i> targetSupplier = null;
-    private Set<Vector2i> walkable = Collections.emptySet();
+    // Null until set: the ghost then only follows a flow field.
+    private Grid walkable = null;
+    // When set, the ghost follows this shared field instead of planning its own path.
+    private FlowField flowField = null;
+    // Shared A* used when there is no flow field; the scene runs ghosts on one thread.
+    private GridPathfinder pathfinder = null;
+    // If set, plans run on the service's workers instead; the old path is followed until the result arrives.
+    private PathService pathService = null;
+    private PathService.Ticket pendingPath = null;
+    // If set, synchronous replans wait for their turn in the scene's AI budget.
+    private AiScheduler aiScheduler = null;
+    private final Runnable replanJob = this::replanNow;
+    // If set, the ghost only chases a target it can see, and otherwise heads for where it last saw it.
+    private Visibility vision = null;
+    private int sightRadius = 0;
+    private Vector2i lastSeenTarget = null;
+    // If set, the ghost and its path are only drawn while its cell is in the player's view.
+    private TileMap.Fog fog = null;
+    // The path being followed, as packed cells (y * pathWidth + x) from pathHead to pathLength,
+    // filled in place by the pathfinder so that planning does not allocate.
+    private static final int MAX_PLANNED_PATH = 256;
+    private final int[] path = new int[MAX_PLANNED_PATH];
+    private int pathHead = 0;
+    private int pathLength = 0;
+    private int pathWidth = 1;
 
     private double stepAccumulator = 0.0;
     private static final long STEP_INTERVAL_MS = 250;
     private static final double STEP_INTERVAL_SEC = STEP_INTERVAL_MS / 1000.0;
 
-    private double pathRecalcAccumulator = 0.0;
+    // Ghosts only act once per step, so schedule them at the step rate instead of every tick.
+    public static final double TICK_HZ = 1000.0 / STEP_INTERVAL_MS;
+    // dt arrives as a multiple of the fixed step; tolerate rounding when comparing intervals
+    private static final double TIME_EPSILON = 1e-6;
+
+    // Set by a repeating timer on the scene's wheel, cleared by the replan it triggers.
+    // Without a wheel the ghost replans on every update.
     private static final double PATH_RECALC_INTERVAL_SEC = 0.20;
+    private TimerWheel.Timer replanTimer = null;
+    private boolean replanTimerFired = true;
 
-    private ArrayDeque<Vector2i> currentPath = new ArrayDeque<>();
+    private SimulationLod.Tier lodTier = SimulationLod.Tier.NEAR;
     private boolean showPath = false;
+    // Longest flow-field path drawn when path display is on.
+    private static final int MAX_SHOWN_PATH = 256;
 
     private static final Vector2i[] DIRS = new Vector2i[]{
             new Vector2i(1, 0), new Vector2i(-1, 0),
             new Vector2i(0, 1), new Vector2i(0, -1)
     };
 
+    // Shared so that unchanged path cells are recognised by the renderer's frame diff.
+    private static final TETile PATH_DOT = new TETile('.', Color.RED, Color.BLACK, "path", 110);
+
     private final TETile ghostTile = ((CustomConfig) getScene().getConfig()).theme.ghost();
 
     //About Switcher: Global path display switch, toggled by Player; affects all Ghosts
@@ -62,95 +110,121 @@ public class Ghost extends Entity {
 
     @Override
     public void update(double dt, InputAction ia) {
-        // 1) 控制寻路重算频率，避免每帧 BFS
-        pathRecalcAccumulator += dt;
-
         // 2) 目标（玩家）坐标
         Vector2i target = (targetSupplier != null) ? targetSupplier.get() : null;
+        if (vision != null && target != null) {
+            if (vision.canSee(position.x(), position.y(), target.x(), target.y(), sightRadius)) {
+                lastSeenTarget = target;
+            } else {
+                target = null;
+            }
+        }
 
         // 3) 到了冷却间隔就重算从当前位置到玩家的路径
-        if (target != null
-                && walkable != null && !walkable.isEmpty()
-                && pathRecalcAccumulator >= PATH_RECALC_INTERVAL_SEC) {
-
-            if (!walkable.contains(target) || !walkable.contains(position)) {
-                currentPath.clear();
+        // Far from the camera the ghost runs in abstract mode: it keeps following its
+        // cached path and only plans again once that path is used up.
+        if (pendingPath != null && pendingPath.isReady()) {
+            acceptPlannedPath(pendingPath);
+            pendingPath = null;
+        }
+        if (flowField != null && target != null) {
+            flowField.setTarget(target); // rebuilds once per target move, shared by all ghosts
+        }
+        boolean replanDue = (lodTier == SimulationLod.Tier.FAR)
+                ? pathHead >= pathLength
+                : replanTimer == null || replanTimerFired;
+        if (target != null && flowField == null
+                && walkable != null
+                && replanDue) {
+
+            if (aiScheduler != null && pathService == null) {
+                // Runs on a later tick; until then the old path or the greedy step is used.
+                aiScheduler.submit(replanJob);
             } else {
-                ArrayDeque<Vector2i> newPath = aStarShortestPath(position, target, walkable);
-                if (newPath != null) {
-                    currentPath = newPath;
-                    // 若首元素就是当前位置，弹掉，使队头变成“下一步”
-                    if (!currentPath.isEmpty() && currentPath.peekFirst().equals(position)) {
-                        currentPath.pollFirst();
-                    }
-                }
+                replanNow();
             }
-            pathRecalcAccumulator = 0.0;
+            replanTimerFired = false;
         }
 
         // 4) 用 dt 节流（静止时不会积压，因为只有到阈值才走一步）
-        stepAccumulator = Math.min(stepAccumulator + dt, STEP_INTERVAL_SEC);
+        // Near the camera take at most one step per update; at reduced LOD rates take every
+        // step the elapsed time allows so that off-screen ghosts keep their average speed.
+        double maxBacklog = (lodTier == SimulationLod.Tier.NEAR) ? STEP_INTERVAL_SEC : Math.max(dt, STEP_INTERVAL_SEC);
+        stepAccumulator = Math.min(stepAccumulator + dt, maxBacklog);
+        int steps = (int) ((stepAccumulator + TIME_EPSILON) / STEP_INTERVAL_SEC);
 
         boolean attemptedMove = false;
         Vector2i prev = position;
 
-        if (stepAccumulator >= STEP_INTERVAL_SEC) {
+        for (int i = 0; i < steps; i++) {
             Vector2i nextStep = null;
 
-            if (target != null && !currentPath.isEmpty()) {
-                nextStep = currentPath.pollFirst();
+            if (target != null && flowField != null) {
+                nextStep = flowField.nextStep(position);
+            } else if (target != null && pathHead < pathLength) {
+                int cell = path[pathHead++];
+                int nx = cell % pathWidth;
+                int ny = cell / pathWidth;
 
                 // 防御：如果不是相邻格，放弃这条路径
-                if (nextStep != null &&
-                        Math.abs(nextStep.x() - position.x()) + Math.abs(nextStep.y() - position.y()) != 1) {
-                    nextStep = null;
-                    currentPath.clear();
+                if (Math.abs(nx - position.x()) + Math.abs(ny - position.y()) == 1) {
+                    nextStep = new Vector2i(nx, ny);
+                } else {
+                    clearPath();
                 }
             }
 
             // 路径空了就用一次性贪心走一步，避免卡住
-            if (nextStep == null && target != null) {
+            if (nextStep == null && target != null && walkable != null) {
                 nextStep = greedyStepToward(position, target, walkable);
             }
-
-            if (nextStep != null) {
-                setPosition(nextStep);   // 碰撞/回退由引擎处理
-                attemptedMove = true;
+            // Lost sight: walk to where the target was last seen, then wait there.
+            if (target == null && lastSeenTarget != null && walkable != null) {
+                nextStep = greedyStepToward(position, lastSeenTarget, walkable);
+                if (nextStep == null || nextStep.equals(lastSeenTarget)) {
+                    lastSeenTarget = null;
+                }
             }
 
-            stepAccumulator = 0.0;       // 每帧最多一步
-            getScene().requestRender();
+            if (nextStep == null) {
+                break;
+            }
+            setPosition(nextStep);   // 碰撞/回退由引擎处理
+            attemptedMove = true;
+        }
+        if (steps > 0) {
+            stepAccumulator = Math.max(0.0, stepAccumulator - steps * STEP_INTERVAL_SEC);
+            getScene().requestRender(this);
         }
         super.update(dt, ia);
 
         if (attemptedMove && position.equals(prev)) {
-            currentPath.clear();
+            clearPath();
         }
     }
 
+    @Override
+    public void onLodChanged(SimulationLod.Tier tier) {
+        this.lodTier = tier;
+    }
+
     @Override
     public void render(Renderer r) {
+        if (fog != null && !fog.isVisible(position.x(), position.y())) {
+            return;
+        }
         Vector2i screen = getScene().getCamera().worldToScreenPoint(position);
 
         // 1) draw path first, ignore player and ghost objs, prevent covering
-        if ((showPath || GLOBAL_SHOW_PATH) && !currentPath.isEmpty()) {
-            TETile dot = new TETile('.', Color.RED, Color.BLACK, "path", 110);
-
+        if (showPath || GLOBAL_SHOW_PATH) {
             // get the pos of player
             Vector2i target = (targetSupplier != null) ? targetSupplier.get() : null;
-
-            for (Vector2i p : currentPath) {
-                // Skip the player's grid: do not cover the Player
-                if (p.equals(target)) {
-                    continue;
-                }
-                // Skip the ghost's grid: don't cover the ghost itself
-                if (p.equals(position)) {
-                    continue;
+            if (flowField != null) {
+                drawFlowFieldPath(r, target);
+            } else {
+                for (int i = pathHead; i < pathLength; i++) {
+                    drawPathDot(r, path[i] % pathWidth, path[i] / pathWidth, target);
                 }
-
-                Vector2i ps = getScene().getCamera().worldToScreenPoint(p);
-                r.drawTile(ps.x(), ps.y(), dot);
             }
         }
 
@@ -159,8 +233,89 @@ public class Ghost extends Entity {
     }
 
 
-    public void setWalkable(Set<Vector2i> floorSet) {
-        this.walkable = (floorSet != null) ? floorSet : Collections.emptySet();
+    /**
+     * Sets the cells the ghost may plan over and step onto, usually the map's
+     * {@link Engine.Pathfinding.WalkabilityMask}.
+     */
+    public void setWalkable(Grid grid) {
+        this.walkable = grid;
+    }
+
+    /**
+     * Makes the ghost follow a flow field shared with other ghosts chasing the same
+     * target, instead of running its own A*. Pass null to plan individually again.
+     */
+    public void setFlowField(FlowField field) {
+        this.flowField = field;
+        clearPath();
+    }
+
+    /**
+     * Sets the pathfinder used to plan toward the target when no flow field is set.
+     * It may be shared by all ghosts of a scene.
+     */
+    public void setPathfinder(GridPathfinder pathfinder) {
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * Plans paths asynchronously through a shared service instead of on the game thread.
+     */
+    public void setPathService(PathService service) {
+        this.pathService = service;
+        this.pendingPath = null;
+    }
+
+    /**
+     * Defers synchronous replans to the scene's AI budget, so that ghosts due on the
+     * same tick plan in turn. A ghost waiting for its turn keeps its old path, or steps
+     * greedily toward the target once that path is used up.
+     */
+    public void setAiScheduler(AiScheduler scheduler) {
+        this.aiScheduler = scheduler;
+    }
+
+    /**
+     * Paces replans with a repeating timer on the scene's wheel instead of on every
+     * update. The timer is cancelled when the ghost
+     * is removed from the scene.
+     */
+    public void setTimers(TimerWheel timers) {
+        if (replanTimer != null) {
+            replanTimer.cancel();
+        }
+        replanTimer = timers.scheduleRepeating(PATH_RECALC_INTERVAL_SEC, PATH_RECALC_INTERVAL_SEC,
+                () -> replanTimerFired = true);
+    }
+
+    @Override
+    protected void onRemoved() {
+        if (replanTimer != null) {
+            replanTimer.cancel();
+            replanTimer = null;
+        }
+        if (aiScheduler != null) {
+            aiScheduler.cancel(replanJob);
+        }
+    }
+
+    /**
+     * Limits the ghost to chasing a target it can see within the radius; pass null
+     * to make it always know where the target is again (the default). Sight checks
+     * go through the shared visibility cache, so ghosts standing still cost a lookup.
+     */
+    public void setSight(Visibility visibility, int radius) {
+        this.vision = visibility;
+        this.sightRadius = radius;
+        this.lastSeenTarget = null;
+    }
+
+    /**
+     * Hides the ghost, and its path, while its cell is not visible in the fog.
+     * Pass null to always draw it (the default).
+     */
+    public void setFog(TileMap.Fog fog) {
+        this.fog = fog;
     }
 
     public void setTargetSupplier(Supplier<Vector2i> supplier) {
@@ -171,62 +326,110 @@ public class Ghost extends Entity {
         this.showPath = show;
     }
 
-    // --- A* Implementation ---
-    private ArrayDeque<Vector2i> aStarShortestPath(Vector2i start, Vector2i goal, Set<Vector2i> walkableSet) {
-        if (start == null || goal == null) return null;
-        if (start.equals(goal)) return new ArrayDeque<>();
+    // Walks down the field from the ghost the way FlowField.nextStep does, without
+    // allocating and without touching the ghost's own path.
+    private void drawFlowFieldPath(Renderer r, Vector2i target) {
+        int x = position.x();
+        int y = position.y();
+        int dist = flowField.distance(x, y);
+        for (int i = 0; i < MAX_SHOWN_PATH && dist != 0 && dist != FlowField.UNREACHABLE; i++) {
+            int bestDir = -1;
+            for (int d = 0; d < DIRS.length; d++) {
+                int nd = flowField.distance(x + DIRS[d].x(), y + DIRS[d].y());
+                if (nd < dist) {
+                    dist = nd;
+                    bestDir = d;
+                }
+            }
+            if (bestDir < 0) {
+                break;
+            }
+            x += DIRS[bestDir].x();
+            y += DIRS[bestDir].y();
+            drawPathDot(r, x, y, target);
+        }
+    }
 
-        record Node(Vector2i pos, int fScore) {}
-        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(Node::fScore));
-        Map<Vector2i, Integer> g = new HashMap<>();
-        Map<Vector2i, Vector2i> parent = new HashMap<>();
-        Set<Vector2i> closed = new HashSet<>();
+    private void drawPathDot(Renderer r, int x, int y, Vector2i target) {
+        // Skip the player's grid: do not cover the Player
+        if (target != null && x == target.x() && y == target.y()) {
+            return;
+        }
+        // Skip the ghost's grid: don't cover the ghost itself
+        if (x == position.x() && y == position.y()) {
+            return;
+        }
+        // Only where the player can see, like the ghost itself
+        if (fog != null && !fog.isVisible(x, y)) {
+            return;
+        }
+        Camera cam = getScene().getCamera();
+        r.drawTile(x - cam.getX(), y - cam.getY(), PATH_DOT);
+    }
 
-        g.put(start, 0);
-        open.add(new Node(start, heuristic(start, goal)));
-        parent.put(start, null);
+    private void clearPath() {
+        pathHead = 0;
+        pathLength = 0;
+    }
 
-        while (!open.isEmpty()) {
-            Vector2i cur = open.poll().pos();
-            if (cur.equals(goal)) {
-                return reconstruct(parent, goal);
-            }
-            if (!closed.add(cur)) continue;
-            int curG = g.get(cur);
-
-            for (Vector2i d : DIRS) {
-                Vector2i nxt = cur.add(d);
-                if (!walkableSet.contains(nxt) || closed.contains(nxt)) continue;
-                int tentativeG = curG + 1;
-                int prevG = g.getOrDefault(nxt, Integer.MAX_VALUE);
-                if (tentativeG < prevG) {
-                    g.put(nxt, tentativeG);
-                    parent.put(nxt, cur);
-                    int f = tentativeG + heuristic(nxt, goal);
-                    open.add(new Node(nxt, f));
-                }
+    // Takes an asynchronous result, dropping the steps already behind the ghost if it moved meanwhile.
+    private void acceptPlannedPath(PathService.Ticket ticket) {
+        if (ticket.length() == GridPathfinder.NO_PATH) return;
+        int width = pathService.grid().width();
+        int[] cells = ticket.cells();
+        int from = 0;
+        int here = position.y() * width + position.x();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == here) {
+                from = i + 1;
+                break;
             }
         }
-        return null; // no path
+        pathWidth = width;
+        pathHead = 0;
+        pathLength = Math.min(cells.length - from, path.length);
+        System.arraycopy(cells, from, path, 0, pathLength);
     }
 
-    private int heuristic(Vector2i a, Vector2i b) {
-        return Math.abs(a.x() - b.x()) + Math.abs(a.y() - b.y()); // Manhattan
+    // Plans from the current position toward the current target.
+    private void replanNow() {
+        Vector2i target = (targetSupplier != null) ? targetSupplier.get() : null;
+        if (target == null) return;
+        if (!walkable.isWalkable(target.x(), target.y()) || !walkable.isWalkable(position.x(), position.y())) {
+            clearPath();
+        } else {
+            // The planned path starts with the first step, so the head is the "next step".
+            planPath(position, target);
+        }
     }
 
-    private ArrayDeque<Vector2i> reconstruct(Map<Vector2i, Vector2i> parent, Vector2i goal) {
-        ArrayDeque<Vector2i> path = new ArrayDeque<>();
-        Vector2i cur = goal;
-        while (cur != null) { path.addFirst(cur); cur = parent.get(cur); }
-        return path;
+    // --- Path planning through the engine's grid pathfinder ---
+    // Refills the path with up to MAX_PLANNED_PATH steps; false if there is no path.
+    private boolean planPath(Vector2i start, Vector2i goal) {
+        if (pathService != null) {
+            if (pendingPath == null) {
+                pendingPath = pathService.request(start.x(), start.y(), goal.x(), goal.y());
+            }
+            return true;
+        }
+        if (pathfinder == null) return false;
+        int length = pathfinder.findPath(start.x(), start.y(), goal.x(), goal.y(), path);
+        if (length == GridPathfinder.NO_PATH) {
+            clearPath();
+            return false;
+        }
+        pathWidth = pathfinder.grid().width();
+        pathHead = 0;
+        pathLength = Math.min(length, path.length);
+        return true;
     }
 
-    private Vector2i greedyStepToward(Vector2i from, Vector2i target, Set<Vector2i> walkableSet) {
+    private Vector2i greedyStepToward(Vector2i from, Vector2i target, Grid walkableGrid) {
         int best = Math.abs(from.x() - target.x()) + Math.abs(from.y() - target.y());
         Vector2i bestNext = null;
         for (Vector2i d : DIRS) {
             Vector2i cand = from.add(d);
-            if (!walkableSet.contains(cand)) continue;
+            if (!walkableGrid.isWalkable(cand.x(), cand.y())) continue;
             int dist = Math.abs(cand.x() - target.x()) + Math.abs(cand.y() - target.y());
             if (dist < best) { best = dist; bestNext = cand; }
         }
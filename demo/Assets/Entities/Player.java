@@ -28,7 +28,7 @@ public class Player extends Entity {
         Vector2i move = ia.pollMovement(getScene().getConfig().PLAYER_MOVE_INTERVAL_SEC);
         if (!move.equals(Vector2i.ZERO)) {
             setPosition(position.add(move));
-            getScene().requestRender();
+            getScene().requestRender(this);
         }
         super.update(dt, ia);
     }
@@ -2,13 +2,18 @@ package Assets.Map;
 
 import Assets.Components.Theme;
 import Engine.Graphics.tileengine.TETile;
+import Engine.Profiling.MapGenerationEvent;
 import Engine.Utils.Vector2i;
 import core.CustomConfig;
 
 import java.util.*;
 
 /**
- * A Utility class for map generation
+ * Generates dungeon maps: rooms joined by L-shaped corridors, surrounded by walls,
+ * with a locked door in the last room.
+ * <p>
+ * A generator only holds the theme tiles it paints with, so one instance can be
+ * shared by any number of threads; each call returns its own {@link Result}.
  *
  * @note Go to demo read the map generator class
  */
@@ -20,14 +25,42 @@ public class MapGenerator {
     private static final int ROOM_ATTEMPTS = 80;
 
     /* Themes */
-    private static TETile WALL;
-    private static TETile FLOOR;
-    private static TETile NOTHING;
-    private static TETile LOCKED_DOOR;
+    private final TETile WALL;
+    private final TETile FLOOR;
+    private final TETile NOTHING;
+    private final TETile LOCKED_DOOR;
 
-    static List<TETile> solidTiles = new ArrayList<>();
-    static List<Vector2i> floorPositions = new ArrayList<>();
-    private static Vector2i lockedDoorPos;
+    /**
+     * A generated map.
+     *
+     * @param tiles          The map tiles, indexed [x][y].
+     * @param solidTiles     Tiles that should block movement.
+     * @param floorPositions Every floor tile, in column-major order. Callers may reorder it.
+     * @param exitPosition   The position of the locked door.
+     * @param rooms          The number of rooms placed.
+     */
+    public record Result(TETile[][] tiles, List<TETile> solidTiles, List<Vector2i> floorPositions,
+                         Vector2i exitPosition, int rooms) {
+    }
+
+    /**
+     * Constructs a generator that paints with the given theme.
+     *
+     * @param theme The theme providing wall, floor, empty and door tiles.
+     */
+    public MapGenerator(Theme theme) {
+        WALL = theme.wall();
+        FLOOR = theme.floor();
+        NOTHING = theme.nothing();
+        LOCKED_DOOR = theme.lockedDoor();
+    }
+
+    /**
+     * Convenience for {@code new MapGenerator(config.theme).generate(width, height, seed)}.
+     */
+    public static Result generateMap(int width, int height, long seed, CustomConfig config) {
+        return new MapGenerator(config.theme).generate(width, height, seed);
+    }
 
     private static class Rect {
         int x, y, w, h;//left a bottom corner and size
@@ -58,16 +91,26 @@ public class MapGenerator {
      *
      * @param width  The width of the map.
      * @param height The height of the map.
-     * @return A 2D TETile array representing the generated map.
+     * @param seed   The seed; equal seeds give equal maps.
+     * @return The generated map with its solid tiles, floor positions and exit.
      */
-    public static TETile[][] generateMap(int width, int height, long seed, CustomConfig config) {
-
-        Theme theme = config.theme;
-        WALL = theme.wall();
-        FLOOR = theme.floor();
-        NOTHING = theme.nothing();
-        LOCKED_DOOR = theme.lockedDoor();
+    public Result generate(int width, int height, long seed) {
+        MapGenerationEvent event = new MapGenerationEvent();
+        event.begin();
+        Result result = build(width, height, seed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.width = result.tiles().length;
+            event.height = result.tiles()[0].length;
+            event.seed = seed;
+            event.rooms = result.rooms();
+            event.floorTiles = result.floorPositions().size();
+            event.commit();
+        }
+        return result;
+    }
 
+    private Result build(int width, int height, long seed) {
         /* ① 统一转奇数，确保左右各留 1 格墙 */
         if (width % 2 == 0) width--;
         if (height % 2 == 0) height--;
@@ -99,7 +142,7 @@ public class MapGenerator {
             rooms.add(cand);
         }
 
-        if (rooms.size() < 2) return generateMap(width, height, seed + 1, config); // 极小概率回滚
+        if (rooms.size() < 2) return build(width, height, seed + 1); // 极小概率回滚
 
         /* ③ 依次把房间用 L 形走廊连起来，宽度随机 1/2 */
         for (int i = 1; i < rooms.size(); i++) {
@@ -123,14 +166,11 @@ public class MapGenerator {
         Rect last = rooms.get(rooms.size() - 1);
         world[last.cx()][last.cy()] = LOCKED_DOOR;
 
-        lockedDoorPos = new Vector2i(last.cx(), last.cy());
-
         /* ⑥ 更新实心表 */
-        solidTiles.clear();
-        solidTiles.add(WALL);
+        List<TETile> solidTiles = List.of(WALL);
 
         /* ⑦ Populate floor positions from the generated map */
-        floorPositions.clear();
+        List<Vector2i> floorPositions = new ArrayList<>();
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 if (world[x][y] == FLOOR) {
@@ -139,17 +179,17 @@ public class MapGenerator {
             }
         }
 
-        return world;
+        return new Result(world, solidTiles, floorPositions, new Vector2i(last.cx(), last.cy()), rooms.size());
     }
 
-    private static void carveRoom(TETile[][] w, Rect r) {
+    private void carveRoom(TETile[][] w, Rect r) {
         for (int x = r.x; x < r.x + r.w; x++)
             for (int y = r.y; y < r.y + r.h; y++) {
                 w[x][y] = FLOOR;
             }
     }
 
-    private static void carveL(TETile[][] w, Rect base, Random rng) {
+    private void carveL(TETile[][] w, Rect base, Random rng) {
         int lx = base.x + rng.nextInt(base.w / 2);
         int ly = base.y + rng.nextInt(base.h / 2);
         int lw = base.w / 2, lh = base.h / 2;
@@ -161,7 +201,7 @@ public class MapGenerator {
             }
     }
 
-    private static void carveCorridor(TETile[][] w, int x1, int y1, int x2, int y2, Random rng) {
+    private void carveCorridor(TETile[][] w, int x1, int y1, int x2, int y2, Random rng) {
         boolean horizFirst = rng.nextBoolean();
         int cw = rng.nextBoolean() ? 1 : 2;
         if (horizFirst) {
@@ -173,7 +213,7 @@ public class MapGenerator {
         }
     }
 
-    private static void carveH(TETile[][] w, int xs, int xe, int y, int cw) {
+    private void carveH(TETile[][] w, int xs, int xe, int y, int cw) {
         if (xs > xe) {
             int t = xs;
             xs = xe;
@@ -185,7 +225,7 @@ public class MapGenerator {
             }
     }
 
-    private static void carveV(TETile[][] w, int ys, int ye, int x, int cw) {
+    private void carveV(TETile[][] w, int ys, int ye, int x, int cw) {
         if (ys > ye) {
             int t = ys;
             ys = ye;
@@ -198,7 +238,7 @@ public class MapGenerator {
     }
 
     /* 将 NOTHING 且邻接 FLOOR 的格子变为 WALL */
-    private static void growWalls(TETile[][] w) {
+    private void growWalls(TETile[][] w) {
         int W = w.length, H = w[0].length;
         for (int x = 0; x < W; x++)
             for (int y = 0; y < H; y++)
@@ -206,7 +246,7 @@ public class MapGenerator {
                     w[x][y] = WALL;
     }
 
-    private static boolean hasAdjFloor(TETile[][] w, int x, int y) {
+    private boolean hasAdjFloor(TETile[][] w, int x, int y) {
         int W = w.length, H = w[0].length;
         int[][] d = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
         for (int[] dxy : d) {
@@ -215,17 +255,4 @@ public class MapGenerator {
         }
         return false;
     }
-
-
-    public static List<TETile> getSolidTiles() {
-        return solidTiles;
-    }
-
-    public static List<Vector2i> getFloorPositions() {
-        return floorPositions;
-    }
-
-    public static Vector2i getExitPosition() {
-        return lockedDoorPos;
-    }
-}
\ No newline at end of file
+}
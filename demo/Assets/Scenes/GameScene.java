@@ -7,14 +7,22 @@ import Assets.Entities.Player;
 import Assets.Map.MapGenerator;
 import Engine.Graphics.tileengine.TETile;
 import Engine.Input.InputAction;
+import Engine.Pathfinding.DStarLite;
+import Engine.Pathfinding.FlowField;
+import Engine.Pathfinding.JumpPointSearch;
+import Engine.Pathfinding.PathService;
+import Engine.Pathfinding.WalkabilityMask;
 import Engine.Scene.*;
 import Engine.Utils.Vector2i;
+import Engine.Vision.FogOfWar;
+import Engine.Vision.Visibility;
 import core.CustomConfig;
+import utils.RandomUtils;
 
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class GameScene extends Scene {
 
@@ -31,6 +39,8 @@ public class GameScene extends Scene {
     private boolean triggerLost = false;
     private boolean triggerBack = false;
     private String lastHoverDesc = ""; // cache to avoid redundant renders
+    private PathService pathService; // ghost replans off the game thread
+    private FogOfWar fog; // what the player has explored and sees; null when disabled
 
     public GameScene(long seed) {
         /* Game Object should be put in onStart method as possible. */
@@ -43,22 +53,26 @@ public class GameScene extends Scene {
         this.pendingRestore = restore;
     }
 
+    // Heavy setup; runs on the loader thread when started via SceneTransition.ReplaceAsync.
     @Override
-    public void onStart() {
-        super.onStart(); // basic registration
+    public void prepare() {
         int NUM_GHOSTS = ((CustomConfig) config).ghostNum;
 
         /* Game Map */
-        TETile[][] map = MapGenerator.generateMap(config.WIDTH, config.HEIGHT, seed, (CustomConfig) config);
+        MapGenerator.Result map = MapGenerator.generateMap(config.WIDTH, config.HEIGHT, seed, (CustomConfig) config);
+        reportLoadProgress(0.4);
         // Tile Map Layer
-        this.mapLayer = new TileMap(this, map, MapGenerator.getSolidTiles());
+        this.mapLayer = new TileMap(this, map.tiles(), map.solidTiles());
+        TETile floor = ((CustomConfig) config).theme.floor();
+        WalkabilityMask floorMask = mapLayer.setMovementCosts(t -> t == floor ? 1 : WalkabilityMask.BLOCKED);
         addLayer(mapLayer);
+        reportLoadProgress(0.8);
 
         /* Entity Layer */
         Layer entityLayer = new Layer(this);
 
-        List<Vector2i> floorPositions = MapGenerator.getFloorPositions();
-        Collections.shuffle(floorPositions);
+        List<Vector2i> floorPositions = new ArrayList<>(map.floorPositions());
+        Collections.shuffle(floorPositions, RandomUtils.stream(seed, "spawn"));
 
         // Add Player
         Vector2i playerPos = floorPositions.removeFirst();
@@ -66,7 +80,26 @@ public class GameScene extends Scene {
         entityLayer.addObject(player);
 
         // Add Ghosts
-        Set<Vector2i> walkable = new HashSet<>(MapGenerator.getFloorPositions());
+        // A third of the ghosts follow one shared distance map toward the player. The rest
+        // plan their own paths, and so reach the player by other routes: half of them off
+        // the game thread, half under the scene's AI budget, each repairing its own D* Lite
+        // search as it and the player move.
+        FlowField chaseField = new FlowField(floorMask);
+        // Mostly open rooms: jump point search expands far fewer cells than plain A*.
+        pathService = new PathService(floorMask, JumpPointSearch::new, 2, 256);
+        pathService.setDeterministic(config.DETERMINISTIC);
+        floorMask.addListener((x, y, walkable, cost) -> {
+            chaseField.invalidate();
+            pathService.invalidateSnapshot();
+        });
+        TickGroup ghostTicks = ticks().group("ghosts", Ghost.TICK_HZ);
+        int sightRadius = ((CustomConfig) config).ghostSightRadius;
+        int fogRadius = ((CustomConfig) config).fogOfWarRadius;
+        Visibility vision = (sightRadius > 0 || fogRadius > 0) ? new Visibility(mapLayer) : null;
+        if (fogRadius > 0) {
+            fog = new FogOfWar(vision, fogRadius);
+            mapLayer.setFog(fog);
+        }
         for (int i = 0; i < NUM_GHOSTS; i++) {
             if (floorPositions.isEmpty()) {
                 break;
@@ -75,15 +108,29 @@ public class GameScene extends Scene {
             Ghost ghost = new Ghost(this, ghostPos);
 
             // ★ 新增依赖注入：可走格 + 目标（玩家） + 是否显示路径
-            ghost.setWalkable(walkable);
+            ghost.setWalkable(floorMask);
+            switch (i % 3) {
+                case 0 -> ghost.setFlowField(chaseField);
+                case 1 -> ghost.setPathService(pathService);
+                default -> {
+                    ghost.setPathfinder(DStarLite.following(floorMask));
+                    ghost.setAiScheduler(ai());
+                }
+            }
             ghost.setTargetSupplier(this::getPlayerPosition);
+            if (sightRadius > 0) {
+                ghost.setSight(vision, sightRadius);
+            }
+            ghost.setFog(fog); // null when the fog is off
+            ghost.setTimers(timers());
             ghost.setShowPath(false); // TODO: Switching can be put in command input;
 
-            entityLayer.addObject(ghost);
+            entityLayer.addObject(ghost, ghostTicks);
+            lod().track(entityLayer, ghost, ghostTicks); // off-screen ghosts tick less often
             ghostCache.add(ghost);
         }
         // Add Door
-        Door door = new Door(this, MapGenerator.getExitPosition());
+        Door door = new Door(this, map.exitPosition());
         entityLayer.addObject(door);
         addLayer(entityLayer);
 
@@ -103,8 +150,23 @@ public class GameScene extends Scene {
                 core.SaveData.SavePos sp = pendingRestore.ghosts.get(i);
                 ghostCache.get(i).setPosition(new Vector2i(sp.x, sp.y));
             }
+            if (fog != null && pendingRestore.fogExplored != null) {
+                try {
+                    fog.importExplored(Base64.getDecoder().decode(pendingRestore.fogExplored));
+                } catch (IllegalArgumentException e) {
+                    e.printStackTrace(); // keep playing with a fresh fog
+                }
+            }
         }
+        if (fog != null && player != null) {
+            fog.update(player.getPosition().x(), player.getPosition().y());
+        }
+        reportLoadProgress(1.0);
+    }
 
+    @Override
+    public void onStart() {
+        super.onStart(); // basic registration
         requestRender();
     }
 
@@ -142,10 +204,21 @@ public class GameScene extends Scene {
             }
         }
 
+        pathService.update(); // hand over paths finished since the last tick
         super.update(dt, ia);
+        if (fog != null && player != null
+                && fog.update(player.getPosition().x(), player.getPosition().y())) {
+            mapLayer.markDirty();
+        }
         updateHoverText(ia);
     }
 
+    @Override
+    public void onDestroy() {
+        pathService.close();
+        super.onDestroy();
+    }
+
     // Removed duplicate saveGame() earlier in file; keep single impl below
 
     private void updateHoverText(InputAction ia) {
@@ -164,7 +237,8 @@ public class GameScene extends Scene {
         TETile tile = mapLayer.getTile(worldX, worldY);
         if (tile == null)
             return;
-        String desc = tile.description();
+        // Unexplored tiles are drawn black, so their description would give them away.
+        String desc = (fog == null || fog.isExplored(worldX, worldY)) ? tile.description() : "";
         if (!desc.equals(lastHoverDesc)) {
             lastHoverDesc = desc;
             topBar.setHoverText(desc);
@@ -216,6 +290,9 @@ public class GameScene extends Scene {
                 Vector2i p = g.getPosition();
                 data.ghosts.add(new core.SaveData.SavePos(p.x(), p.y()));
             }
+            if (fog != null) {
+                data.fogExplored = Base64.getEncoder().encodeToString(fog.exportExplored());
+            }
             core.SaveGameManager.write(data, data.name);
             System.out.println("Saved game: " + data.name);
         } catch (Exception e) {
@@ -261,10 +261,10 @@ public class IntroScene extends Scene {
                     cc.theme = ThemeUtils.forName(pendingLoad.themeName);
                     cc.ghostNum = pendingLoad.ghosts.size();
                 }
-                return new SceneTransition.Replace(new GameScene(pendingLoad.seed, pendingLoad));
+                return new SceneTransition.ReplaceAsync(new GameScene(pendingLoad.seed, pendingLoad));
             } else if (!seedBuffer.isEmpty()) {
                 long seed = Long.parseLong(seedBuffer.toString());
-                return new SceneTransition.Replace(new GameScene(seed));
+                return new SceneTransition.ReplaceAsync(new GameScene(seed));
             }
         } else if (themeSelectionTriggered) {
             // Reset the trigger so we don't immediately re-push after the theme scene pops.
@@ -118,7 +118,7 @@ public class ThemeSelectionScene extends Scene {
         if (config instanceof CustomConfig customConfig) {
             customConfig.theme = currentTheme;
             long seed = System.currentTimeMillis();
-            TETile[][] newTiles = MapGenerator.generateMap(customConfig.SCREEN_WIDTH, customConfig.SCREEN_HEIGHT, seed, customConfig);
+            TETile[][] newTiles = MapGenerator.generateMap(customConfig.SCREEN_WIDTH, customConfig.SCREEN_HEIGHT, seed, customConfig).tiles();
             for (int x = 0; x < newTiles.length; x++) {
                 for (int y = 0; y < newTiles[0].length; y++) {
                     backgroundLayer.setTile(x, y, newTiles[x][y]);
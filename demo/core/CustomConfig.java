@@ -7,6 +7,11 @@ public class CustomConfig extends Config {
     public static final String GHOST_PATH = "Assets/images/ghost.png";
     public Theme theme;
     public int ghostNum = 5;
+    // Ghosts only chase a player they can see within this many tiles; 0 means they
+    // always know where the player is.
+    public int ghostSightRadius = 0;
+    // How far the player sees through the fog of war, in tiles; 0 shows the whole map.
+    public int fogOfWarRadius = 10;
 
     public CustomConfig(int width,
                         int height,
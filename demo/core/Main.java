@@ -5,9 +5,18 @@ import Assets.Components.Theme;
 import Assets.Scenes.IntroScene;
 import Engine.Engine;
 import Engine.Config;
+import Engine.Input.InputAction;
+import Engine.Input.InputRecorder;
+import Engine.Input.ReplayInputAction;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class Main {
-    public static void main(String[] args) {
+    /**
+     * Usage: {@code Main [--record file | --replay file]}
+     */
+    public static void main(String[] args) throws IOException {
 
         // 100 * 60 is a good choice
         int WIDTH = 200;
@@ -21,6 +30,25 @@ public class Main {
         Config config = new CustomConfig(WIDTH, HEIGHT, CELL_SIZE, theme, SCREEN_WIDTH, SCREEN_HEIGHT);
         Engine engine = new Engine(config);
 
+        if (args.length >= 2 && args[0].equals("--record")) {
+            // The map seed is typed in the intro, so it is part of the recorded input.
+            config.DETERMINISTIC = true;
+            InputRecorder recorder = new InputRecorder(Path.of(args[1]), 0L, config.TICK_RATE);
+            InputAction input = new InputAction();
+            input.setRecorder(recorder);
+            engine.setInput(input);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        } else if (args.length >= 2 && args[0].equals("--replay")) {
+            config.DETERMINISTIC = true;
+            engine.setInput(ReplayInputAction.load(Path.of(args[1])));
+        }
+
         engine.register(new IntroScene());
 
         engine.run();
@@ -0,0 +1,226 @@
+package core;
+
+import Assets.Components.CustomTiles;
+import Assets.Map.MapGenerator;
+import Engine.Pathfinding.BoolGrid;
+import Engine.Pathfinding.DStarLite;
+import Engine.Pathfinding.GridAStar;
+import Engine.Pathfinding.GridPathfinder;
+import Engine.Pathfinding.HierarchicalPathfinder;
+import Engine.Pathfinding.JumpPointSearch;
+import Engine.Pathfinding.WalkabilityMask;
+import Engine.Utils.Vector2i;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the grid pathfinders on generated dungeon maps: the same random
+ * start/goal pairs go to {@link GridAStar} and {@link JumpPointSearch}, and the
+ * benchmark reports cells expanded and time per search, and checks that both
+ * found paths of the same length. {@link HierarchicalPathfinder} answers the same
+ * queries with its first leg; its row shows how much longer its routes are.
+ * <p>
+ * The chase part replans every step of an agent walking toward a wandering target,
+ * with a fresh {@link GridAStar} search and with an incremental {@link DStarLite},
+ * for targets that move on 10% and on all of the agent's steps, after an untimed
+ * warm-up; both must find paths of the same length. The terrain part does the same
+ * toward a fixed target while a wall cell is raised and another lowered on every
+ * step.
+ * <p>
+ * Usage: {@code PathBenchmark [width] [height] [maps] [queriesPerMap]}
+ */
+public class PathBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 110;
+        int maps = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+        long[] expanded = new long[3];
+        long[] nanos = new long[3];
+        long mismatches = 0;
+        long optimalSum = 0;
+        long hierarchicalSum = 0;
+        long buildNanos = 0;
+        int[] path = new int[width * height];
+
+        for (int m = 0; m < maps; m++) {
+            MapGenerator.Result map = new MapGenerator(new CustomTiles.DesertRuins()).generate(width, height, m);
+            List<Vector2i> floor = map.floorPositions();
+            BoolGrid grid = new BoolGrid(width, height, floor);
+            GridPathfinder[] finders = {new GridAStar(grid), new JumpPointSearch(grid)};
+            long b0 = System.nanoTime();
+            HierarchicalPathfinder hpa = new HierarchicalPathfinder(grid, 16);
+            buildNanos += System.nanoTime() - b0;
+            Random rng = new Random(m);
+
+            // Warm up both so that the timed loop measures compiled code.
+            for (int i = 0; i < 200; i++) {
+                Vector2i s = floor.get(rng.nextInt(floor.size()));
+                Vector2i g = floor.get(rng.nextInt(floor.size()));
+                for (GridPathfinder f : finders) {
+                    f.findPath(s.x(), s.y(), g.x(), g.y(), path);
+                }
+                hpa.findPath(s.x(), s.y(), g.x(), g.y(), path);
+            }
+
+            for (int i = 0; i < queries; i++) {
+                Vector2i s = floor.get(rng.nextInt(floor.size()));
+                Vector2i g = floor.get(rng.nextInt(floor.size()));
+                int firstLength = 0;
+                for (int k = 0; k < finders.length; k++) {
+                    long t0 = System.nanoTime();
+                    int length = finders[k].findPath(s.x(), s.y(), g.x(), g.y(), path);
+                    nanos[k] += System.nanoTime() - t0;
+                    expanded[k] += finders[k].getLastExpandedCount();
+                    if (k == 0) {
+                        firstLength = length;
+                    } else if (length != firstLength) {
+                        mismatches++;
+                    }
+                }
+                long t0 = System.nanoTime();
+                hpa.findPath(s.x(), s.y(), g.x(), g.y(), path);
+                nanos[2] += System.nanoTime() - t0;
+                expanded[2] += hpa.getLastExpandedCount();
+                if (firstLength > 0) {
+                    optimalSum += firstLength;
+                    hierarchicalSum += hpa.getLastPathCost();
+                }
+            }
+        }
+
+        long total = (long) maps * queries;
+        String[] names = {"A*", "JPS", "HPA*"};
+        for (int k = 0; k < names.length; k++) {
+            System.out.printf("%-4s expanded/search=%8.1f  us/search=%7.2f%n",
+                    names[k], expanded[k] / (double) total, nanos[k] / 1e3 / total);
+        }
+        System.out.printf("expansion ratio %.1fx, path length mismatches: %d%n",
+                expanded[0] / (double) Math.max(1, expanded[1]), mismatches);
+        System.out.printf("HPA* routes %.1f%% longer than optimal, graph build %.1f ms per map%n",
+                100.0 * (hierarchicalSum - optimalSum) / Math.max(1, optimalSum), buildNanos / 1e6 / maps);
+
+        MapGenerator.Result map = new MapGenerator(new CustomTiles.DesertRuins()).generate(width, height, 0);
+        BoolGrid grid = new BoolGrid(width, height, map.floorPositions());
+        chase(grid, map.floorPositions(), 1.0, false); // warm-up
+        chase(grid, map.floorPositions(), 0.1, true);
+        chase(grid, map.floorPositions(), 1.0, true);
+        terrain(width, height, map.floorPositions());
+    }
+
+    // The agent takes one step per replan; the target takes one with the given probability.
+    private static void chase(BoolGrid grid, List<Vector2i> floor, double targetMoveChance, boolean report) {
+        int width = grid.width();
+        GridPathfinder[] finders = {new GridAStar(grid), new DStarLite(grid)};
+        long[] expanded = new long[2];
+        long[] nanos = new long[2];
+        long replans = 0;
+        int mismatches = 0;
+        int[] path = new int[grid.width() * grid.height()];
+        Random rng = new Random(1);
+        for (int run = 0; run < 30; run++) {
+            Vector2i a = floor.get(rng.nextInt(floor.size()));
+            Vector2i t = floor.get(rng.nextInt(floor.size()));
+            int ax = a.x(), ay = a.y(), tx = t.x(), ty = t.y();
+            for (int step = 0; step < 300; step++) {
+                if (rng.nextDouble() < targetMoveChance) {
+                    int d = rng.nextInt(4);
+                    int nx = tx + (d == 0 ? 1 : d == 1 ? -1 : 0);
+                    int ny = ty + (d == 2 ? 1 : d == 3 ? -1 : 0);
+                    if (grid.isWalkable(nx, ny)) {
+                        tx = nx;
+                        ty = ny;
+                    }
+                }
+                int optimal = 0;
+                int length = 0;
+                for (int k = 0; k < finders.length; k++) {
+                    long t0 = System.nanoTime();
+                    length = finders[k].findPath(ax, ay, tx, ty, path);
+                    nanos[k] += System.nanoTime() - t0;
+                    expanded[k] += finders[k].getLastExpandedCount();
+                    if (k == 0) {
+                        optimal = length;
+                    }
+                }
+                if (length != optimal) {
+                    mismatches++;
+                }
+                replans++;
+                if (length <= 1) {
+                    break;
+                }
+                ax = path[0] % width;
+                ay = path[0] / width;
+            }
+        }
+        if (report) {
+            System.out.printf("chase (target moves %3.0f%%): A* %6.1f expanded %6.1f us | D* Lite %6.1f expanded %6.1f us, mismatches: %d%n",
+                    targetMoveChance * 100, expanded[0] / (double) replans, nanos[0] / 1e3 / replans,
+                    expanded[1] / (double) replans, nanos[1] / 1e3 / replans, mismatches);
+        }
+    }
+
+    // The agent takes one step per replan toward a fixed target. Before each replan one
+    // random floor cell is blocked, and the one blocked eight steps earlier reopens.
+    private static void terrain(int width, int height, List<Vector2i> floor) {
+        WalkabilityMask mask = new WalkabilityMask(width, height);
+        for (Vector2i p : floor) {
+            mask.set(p.x(), p.y(), 1);
+        }
+        GridAStar astar = new GridAStar(mask);
+        DStarLite dstar = DStarLite.following(mask);
+        long[] expanded = new long[2];
+        long[] nanos = new long[2];
+        long replans = 0;
+        long mismatches = 0;
+        int[] path = new int[width * height];
+        int[] blocked = new int[8];
+        Random rng = new Random(2);
+        for (int run = 0; run < 30; run++) {
+            Vector2i a = floor.get(rng.nextInt(floor.size()));
+            Vector2i t = floor.get(rng.nextInt(floor.size()));
+            int ax = a.x(), ay = a.y();
+            Arrays.fill(blocked, -1);
+            for (int step = 0; step < 300; step++) {
+                int slot = step % blocked.length;
+                if (blocked[slot] >= 0) {
+                    mask.set(blocked[slot] % width, blocked[slot] / width, 1);
+                }
+                Vector2i w = floor.get(rng.nextInt(floor.size()));
+                boolean free = !(w.x() == ax && w.y() == ay) && !w.equals(t);
+                blocked[slot] = free && mask.set(w.x(), w.y(), WalkabilityMask.BLOCKED) ? w.y() * width + w.x() : -1;
+
+                long t0 = System.nanoTime();
+                int length = astar.findPath(ax, ay, t.x(), t.y(), path);
+                nanos[0] += System.nanoTime() - t0;
+                expanded[0] += astar.getLastExpandedCount();
+                t0 = System.nanoTime();
+                int incremental = dstar.findPath(ax, ay, t.x(), t.y(), path);
+                nanos[1] += System.nanoTime() - t0;
+                expanded[1] += dstar.getLastExpandedCount();
+                replans++;
+                if (incremental != length) {
+                    mismatches++;
+                }
+                if (incremental <= 1) {
+                    break;
+                }
+                ax = path[0] % width;
+                ay = path[0] / width;
+            }
+            for (int cell : blocked) {
+                if (cell >= 0) {
+                    mask.set(cell % width, cell / width, 1);
+                }
+            }
+        }
+        System.out.printf("terrain (fixed target):    A* %6.1f expanded %6.1f us | D* Lite %6.1f expanded %6.1f us, mismatches: %d%n",
+                expanded[0] / (double) replans, nanos[0] / 1e3 / replans,
+                expanded[1] / (double) replans, nanos[1] / 1e3 / replans, mismatches);
+    }
+}
@@ -28,6 +28,9 @@ public class SaveData {
     // Ghost positions
     public List<SavePos> ghosts = new ArrayList<>();
 
+    // Explored tiles: FogOfWar.exportExplored() in base64, or null without fog
+    public String fogExplored;
+
     /** Simple x/y pair for serialization. */
     public static class SavePos {
         public int x;
@@ -1,5 +1,7 @@
 package core;
 
+import Engine.Profiling.IoEvent;
+
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -37,6 +39,8 @@ public class SaveGameManager {
     }
 
     public static void write(SaveData d, String baseName) throws IOException {
+        IoEvent event = new IoEvent();
+        event.begin();
         ensureSaveDir();
         File f = fileForName(baseName);
         try (BufferedWriter w = Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8)) {
@@ -60,10 +64,21 @@ public class SaveGameManager {
                 if (i < d.ghosts.size() - 1) sb.append(",");
                 sb.append("\n");
             }
-            sb.append("  ]\n");
+            sb.append("  ]");
+            if (d.fogExplored != null) {
+                sb.append(",\n  \"fogExplored\": \"").append(d.fogExplored).append("\"");
+            }
+            sb.append("\n");
             sb.append("}\n");
             w.write(sb.toString());
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "save";
+            event.path = f.getPath();
+            event.bytes = f.length();
+            event.commit();
+        }
     }
 
     private static String escape(String s) {
@@ -72,6 +87,8 @@ public class SaveGameManager {
     }
 
     public static SaveData read(File f) throws IOException {
+        IoEvent event = new IoEvent();
+        event.begin();
         String content;
         try (BufferedReader r = Files.newBufferedReader(f.toPath(), StandardCharsets.UTF_8)) {
             StringBuilder sb = new StringBuilder();
@@ -79,6 +96,13 @@ public class SaveGameManager {
             while ((line = r.readLine()) != null) sb.append(line).append('\n');
             content = sb.toString();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "load";
+            event.path = f.getPath();
+            event.bytes = f.length();
+            event.commit();
+        }
         return parseJson(content);
     }
 
@@ -96,6 +120,7 @@ public class SaveGameManager {
         d.themeName = extractString(json, "\"themeName\"");
         d.playerX = (int) extractLong(json, "\"playerX\"");
         d.playerY = (int) extractLong(json, "\"playerY\"");
+        d.fogExplored = extractString(json, "\"fogExplored\"");
         String ghostsArr = extractArray(json, "\"ghosts\"");
         if (ghostsArr != null) {
             // Split objects by '},{' boundaries; be forgiving
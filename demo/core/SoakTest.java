@@ -0,0 +1,140 @@
+package core;
+
+import Assets.Components.CustomTiles;
+import Assets.Scenes.GameScene;
+import Engine.Config;
+import Engine.HeadlessRunner;
+import Engine.Input.InputAction;
+import Engine.Input.InputRecorder;
+import Engine.Input.ReplayInputAction;
+import Engine.SessionHost;
+import Engine.Input.ScriptedInputAction;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the game headless for a long stretch of simulated time with a random-walk
+ * player, and prints how fast the simulation ran. With more than one session, the
+ * sessions run concurrently in a {@link SessionHost}, each with its own seed.
+ * <p>
+ * Usage: {@code SoakTest [seed] [simulatedSeconds] [sessions] [--record file | --replay file | --scaling]}
+ * <p>
+ * {@code --record} saves the single session's input; {@code --replay} re-runs a
+ * recorded session (seed and length come from the file) as fast as possible. Both
+ * run in deterministic mode, so the replay checks the recorded state checksums.
+ * {@code --scaling} runs the host with 1, 2, 4, ... sessions up to twice the number
+ * of cores and prints the throughput of each, to show how sessions scale with cores.
+ */
+public class SoakTest {
+    private static final int[] MOVE_KEYS = {KeyEvent.VK_W, KeyEvent.VK_A, KeyEvent.VK_S, KeyEvent.VK_D};
+
+    public static void main(String[] args) throws IOException {
+        Path record = null;
+        Path replay = null;
+        boolean scaling = false;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--record") && i + 1 < args.length) {
+                record = Path.of(args[++i]);
+            } else if (args[i].equals("--replay") && i + 1 < args.length) {
+                replay = Path.of(args[++i]);
+            } else if (args[i].equals("--scaling")) {
+                scaling = true;
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        long seed = positional.size() > 0 ? Long.parseLong(positional.get(0)) : 42L;
+        double seconds = positional.size() > 1 ? Double.parseDouble(positional.get(1)) : 3600.0;
+        int sessions = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 1;
+
+        Config config = new CustomConfig(200, 110, 16, new CustomTiles.DesertRuins(), 100, 55);
+
+        config.DETERMINISTIC = record != null || replay != null;
+
+        if (replay != null) {
+            ReplayInputAction input = ReplayInputAction.load(replay);
+            config.TICK_RATE = input.getTickRate();
+            HeadlessRunner runner = new HeadlessRunner(config);
+            runner.register(new GameScene(input.getSeed()));
+            System.out.println(runner.run(input.getLength(), input));
+            if (input.getDivergedTick() >= 0) {
+                System.out.println("Diverged at tick " + input.getDivergedTick());
+            } else {
+                System.out.println(input.getChecksumsVerified() + " checksums matched");
+            }
+            System.out.print(runner.getMetrics());
+            return;
+        }
+
+        if (scaling) {
+            printScaling(seed, seconds, config);
+            return;
+        }
+
+        if (sessions <= 1) {
+            HeadlessRunner runner = new HeadlessRunner(config);
+            runner.register(new GameScene(seed));
+            InputAction input = randomWalk(seed, config);
+            InputRecorder recorder = (record == null) ? null : new InputRecorder(record, seed, config.TICK_RATE);
+            input.setRecorder(recorder);
+            try {
+                System.out.println(runner.runFor(seconds, input));
+            } finally {
+                if (recorder != null) {
+                    recorder.close();
+                }
+            }
+            System.out.print(runner.getMetrics());
+            return;
+        }
+
+        SessionHost host = new SessionHost();
+        for (int i = 0; i < sessions; i++) {
+            host.add(config, new GameScene(seed + i), randomWalk(seed + i, config));
+        }
+        System.out.println(host.runAll((long) Math.ceil(seconds * config.TICK_RATE)));
+    }
+
+    // Runs the same workload with a growing number of sessions. Throughput should grow
+    // with the sessions up to the number of cores and then level off.
+    private static void printScaling(long seed, double seconds, Config config) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long ticks = (long) Math.ceil(seconds * config.TICK_RATE);
+        System.out.println(cores + " cores, " + ticks + " ticks per session");
+        SessionHost warmUp = new SessionHost(); // so that the first row is not measured on cold code
+        warmUp.add(config, new GameScene(seed), randomWalk(seed, config));
+        warmUp.runAll(ticks);
+        System.out.println("sessions  ticks/s  per session  vs 1 session");
+        double single = 0;
+        for (int n = 1; n <= 2 * cores; n *= 2) {
+            SessionHost host = new SessionHost();
+            for (int i = 0; i < n; i++) {
+                host.add(config, new GameScene(seed + i), randomWalk(seed + i, config));
+            }
+            SessionHost.Summary summary = host.runAll(ticks);
+            double rate = summary.ticksPerSecond();
+            if (n == 1) {
+                single = rate;
+            }
+            System.out.printf("%8d %8.0f %12.0f %12.2fx%n", n, rate, rate / n, single == 0 ? 0.0 : rate / single);
+        }
+    }
+
+    // Holds a random direction key, switching every half second of simulated time.
+    private static ScriptedInputAction randomWalk(long seed, Config config) {
+        Random rng = new Random(seed);
+        int switchEvery = (int) Math.max(1, config.TICK_RATE / 2);
+        return new ScriptedInputAction((tick, in) -> {
+            if (tick % switchEvery == 0) {
+                in.releaseAllKeys();
+                in.setKeyDown(MOVE_KEYS[rng.nextInt(MOVE_KEYS.length)], true);
+            }
+        });
+    }
+}
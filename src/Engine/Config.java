@@ -11,6 +11,10 @@ public class Config {
     public int SCREEN_HEIGHT;
     public int CELL_SIZE = 16; // For the collision system's spatial hash grid
 
+    // Fixed simulation rate (updates per second). Tick groups derive their
+    // intervals from this value.
+    public double TICK_RATE = 60.0;
+
     // Max player move frequency (seconds per tile). Acts as speed limiter for
     // continuous key hold.
     public double PLAYER_MOVE_INTERVAL_SEC = 0.12; // default ~8.3 moves per second
@@ -19,9 +23,43 @@ public class Config {
     // camera shifts.
     public int CAM_DEADZONE_MARGIN = 3;
 
+    // Simulation level of detail (see Scene.lod()): distances in tiles from the
+    // camera viewport, and update rates for the reduced tiers.
+    public int LOD_NEAR_DISTANCE = 8;
+    public int LOD_MID_DISTANCE = 40;
+    public double LOD_MID_HZ = 2.0;
+    public double LOD_FAR_HZ = 0.5;
+    public double LOD_REASSESS_SEC = 0.25;
+
+    // Time per tick that expensive AI work such as path replans may use (see Scene.ai()).
+    // Work beyond it waits for later ticks. In deterministic mode the budget is
+    // AI_JOBS_PER_TICK jobs instead, so that runs do not depend on machine speed.
+    public double AI_BUDGET_US = 500.0;
+    public int AI_JOBS_PER_TICK = 4;
+
+    // Deterministic mode: scenes loaded with ReplaceAsync are swapped in on the next
+    // tick instead of whenever the loader finishes, and every CHECKSUM_INTERVAL_TICKS
+    // ticks the scene's state hash goes to the input recorder, or is checked against a
+    // replay, so diverging runs are caught early.
+    public boolean DETERMINISTIC = false;
+    public int CHECKSUM_INTERVAL_TICKS = 60;
+
+    // Show the performance overlay (FPS, tick/render times, counts) from the start.
+    // F3 toggles it at runtime.
+    public boolean SHOW_PERF_OVERLAY = false;
+
     // Cap logic catch-up per frame to avoid stutter on slow frames
     public int MAX_CATCHUP_STEPS = 5;
 
+    // Wall-clock time per frame that catch-up ticks may use. The loop stops catching
+    // up once the measured cost of another tick would exceed it, and carries the
+    // remaining ticks over to the next frame instead of dropping them.
+    public double UPDATE_BUDGET_MS = 12.0;
+
+    // Ticks of backlog kept for later frames. Only time beyond this is dropped
+    // (the simulation then falls behind real time).
+    public int MAX_BACKLOG_TICKS = 30;
+
     public Config() {
         this.SCREEN_HEIGHT = HEIGHT;
         this.SCREEN_WIDTH = WIDTH;
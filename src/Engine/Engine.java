@@ -1,6 +1,8 @@
 package Engine;
 
 import Engine.Graphics.Renderer;
+import Engine.Input.InputAction;
+import Engine.Profiling.FrameMetrics;
 import Engine.Scene.Scene;
 
 /**
@@ -11,20 +13,21 @@ public final class Engine {
 
     private final SceneManager sceneManager;
     private final Renderer renderer = new Renderer();
+    private final FrameMetrics metrics = new FrameMetrics();
     private final Config config;
     private final GameLoop gameLoop;
 
     @Deprecated
     public Engine() {
         this.config = new Config();
-        this.sceneManager = new SceneManager(config);
-        this.gameLoop = new GameLoop(sceneManager, renderer, config);
+        this.sceneManager = new SceneManager(config, metrics);
+        this.gameLoop = new GameLoop(sceneManager, renderer, config, metrics);
     }
 
     public Engine(Config config) {
         this.config = config;
-        this.sceneManager = new SceneManager(config);
-        this.gameLoop = new GameLoop(sceneManager, renderer, config);
+        this.sceneManager = new SceneManager(config, metrics);
+        this.gameLoop = new GameLoop(sceneManager, renderer, config, metrics);
     }
 
     /**
@@ -37,9 +40,41 @@ public final class Engine {
     }
 
     /**
-     * Starts the engine and begins the main game loop.
+     * Starts the engine and begins the main game loop. While it runs, the phase
+     * timings are also published over JMX as {@code Engine:type=FrameMetrics,name="GameLoop"}.
      */
     public void run() {
-        gameLoop.run();
+        metrics.registerMBean("GameLoop");
+        try {
+            gameLoop.run();
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+
+    /**
+     * Replaces the live keyboard and mouse input, e.g. with a replay or a script.
+     * Call before {@link #run()}.
+     *
+     * @param input The input source.
+     */
+    public void setInput(InputAction input) {
+        gameLoop.setInputAction(input);
+    }
+
+    /**
+     * Shows or hides the built-in performance overlay (also toggled with F3).
+     *
+     * @param visible True to show the overlay.
+     */
+    public void setPerfOverlayVisible(boolean visible) {
+        gameLoop.setPerfOverlayVisible(visible);
+    }
+
+    /**
+     * @return Per-phase timings of the game loop (input, update, collision, render, present).
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
     }
 }
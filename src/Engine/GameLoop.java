@@ -2,6 +2,11 @@ package Engine;
 
 import Engine.Graphics.Renderer;
 import Engine.Input.InputAction;
+import Engine.Profiling.FrameMetrics;
+import Engine.Profiling.Phase;
+import Engine.Profiling.RenderEvent;
+import Engine.Scene.PerfOverlay;
+import Engine.Scene.Scene;
 
 /**
  * The core of the engine. It manages the main game loop, which is responsible
@@ -9,17 +14,40 @@ import Engine.Input.InputAction;
  * updating game logic, handling input, and rendering frames.
  * This implementation uses a fixed-timestep for logic updates and event-driven
  * rendering.
+ * <p>
+ * The tick rate comes from {@link Config#TICK_RATE}. When a frame falls behind, the
+ * loop runs catch-up ticks only while their measured cost (an exponential moving
+ * average) fits in {@link Config#UPDATE_BUDGET_MS}; the rest of the backlog carries
+ * over to later frames, and only time beyond {@link Config#MAX_BACKLOG_TICKS} is
+ * dropped.
  */
 public class GameLoop {
     private final SceneManager sceneManager;
     private final Renderer renderer;
     private boolean isRunning = false;
     private final Config config;
+    private final FrameMetrics metrics;
+    private final PerfOverlay perfOverlay;
+    private volatile boolean perfOverlayVisible;
+    private boolean perfOverlayShown = false;
+    private InputAction input;
+
+    private static final double TICK_COST_SMOOTHING = 0.1;
+    private double tickCostNanos = 0;
+    private double backlogTicks = 0;
+    private long droppedTicks = 0;
 
     public GameLoop(SceneManager sceneManager, Renderer renderer, Config config) {
+        this(sceneManager, renderer, config, new FrameMetrics());
+    }
+
+    public GameLoop(SceneManager sceneManager, Renderer renderer, Config config, FrameMetrics metrics) {
         this.sceneManager = sceneManager;
         this.renderer = renderer;
         this.config = config;
+        this.metrics = metrics;
+        this.perfOverlay = new PerfOverlay(metrics);
+        this.perfOverlayVisible = config.SHOW_PERF_OVERLAY;
     }
 
     /**
@@ -30,12 +58,14 @@ public class GameLoop {
         this.isRunning = true;
 
         long lastTime = System.nanoTime();
-        double amountOfTicks = 60.0;
+        double amountOfTicks = config.TICK_RATE;
         double ns = 1_000_000_000 / amountOfTicks;
         double delta = 0;
         double fixedDt = 1.0 / amountOfTicks;
+        long tick = 0;
 
-        InputAction ia = new InputAction();
+        InputAction ia = (input != null) ? input : new InputAction();
+        boolean f3WasDown = false;
 
         while (isRunning) {
             if (!sceneManager.hasScene()) {
@@ -48,25 +78,73 @@ public class GameLoop {
             lastTime = now;
 
             ia.updateInputState();
+            long inputDone = System.nanoTime();
+            metrics.record(Phase.INPUT, inputDone - now);
+
+            boolean f3Down = ia.isF3Down();
+            if (f3Down && !f3WasDown) {
+                perfOverlayVisible = !perfOverlayVisible;
+            }
+            f3WasDown = f3Down;
+            syncPerfOverlay(sceneManager.getCurrentScene());
+
+            if (delta > config.MAX_BACKLOG_TICKS + 1) { // too far behind to ever catch up
+                double excess = delta - (config.MAX_BACKLOG_TICKS + 1);
+                droppedTicks += (long) excess;
+                delta -= excess;
+            }
 
             int catchUps = 0;
+            long budgetNanos = (long) (config.UPDATE_BUDGET_MS * 1_000_000);
             // Process game logic in fixed-step updates to ensure a consistent simulation
             // speed.
             while (delta >= 1) {
+                long updateStart = System.nanoTime();
+                if (catchUps > 0 && updateStart - inputDone + tickCostNanos > budgetNanos) {
+                    break; // out of budget; the backlog stays in delta for the next frame
+                }
+                // This tick became due (delta - 1) ticks before now; it sees the input up to then.
+                ia.beginTick(tick, (long) (tick * ns), now - (long) ((delta - 1) * ns));
                 sceneManager.getCurrentScene().update(fixedDt, ia);
+                long cost = System.nanoTime() - updateStart;
+                metrics.record(Phase.UPDATE, cost);
+                if (config.DETERMINISTIC && tick % config.CHECKSUM_INTERVAL_TICKS == 0) {
+                    ia.endTick(sceneManager.getCurrentScene().getStateHash());
+                }
+                tickCostNanos = (tickCostNanos == 0) ? cost
+                        : tickCostNanos + TICK_COST_SMOOTHING * (cost - tickCostNanos);
+                if (perfOverlayShown) {
+                    perfOverlay.update(fixedDt, ia);
+                }
+                tick++;
                 delta--;
                 catchUps++;
                 if (catchUps >= config.MAX_CATCHUP_STEPS) { // avoid spiral-of-death
-                    delta = 0; // drop leftover to keep frame responsive
-                    break;
+                    break; // leftover is kept and worked off over the next frames
                 }
             }
+            backlogTicks = Math.floor(delta);
 
             // Rendering is decoupled and only occurs when the scene requests it.
             if (isRunning && sceneManager.getCurrentScene().isRenderRequested()) {
+                RenderEvent renderEvent = new RenderEvent();
+                renderEvent.begin();
+                long renderStart = System.nanoTime();
                 renderer.beginFrame();
                 sceneManager.getCurrentScene().render(renderer);
+                if (perfOverlayShown) {
+                    perfOverlay.render(renderer);
+                }
+                long presentStart = System.nanoTime();
                 renderer.endFrame();
+                metrics.record(Phase.RENDER, presentStart - renderStart);
+                metrics.record(Phase.PRESENT, System.nanoTime() - presentStart);
+                renderEvent.end();
+                if (renderEvent.shouldCommit()) {
+                    renderEvent.scene = sceneManager.getCurrentScene().getClass().getSimpleName();
+                    renderEvent.dirtyCells = renderer.getLastDirtyCellCount();
+                    renderEvent.commit();
+                }
                 sceneManager.getCurrentScene().resetRenderRequest();
             }
 
@@ -74,6 +152,67 @@ public class GameLoop {
         }
     }
 
+    /**
+     * Replaces the live StdDraw input, e.g. with a {@link Engine.Input.ReplayInputAction}
+     * to watch a recorded session in real time. Must be called before {@link #run()}.
+     *
+     * @param input The input source.
+     */
+    public void setInputAction(InputAction input) {
+        this.input = input;
+    }
+
+    /**
+     * Shows or hides the performance overlay on top of whatever scene is current.
+     * May be called from any thread; F3 toggles it as well.
+     *
+     * @param visible True to show the overlay.
+     */
+    public void setPerfOverlayVisible(boolean visible) {
+        this.perfOverlayVisible = visible;
+    }
+
+    public boolean isPerfOverlayVisible() {
+        return this.perfOverlayVisible;
+    }
+
+    // Applies a pending show/hide and keeps the overlay pointed at the current scene.
+    private void syncPerfOverlay(Scene scene) {
+        perfOverlay.track(scene);
+        if (perfOverlayShown != perfOverlayVisible) {
+            perfOverlayShown = perfOverlayVisible;
+            scene.requestRender(); // draw or erase the overlay
+        }
+    }
+
+    /**
+     * @return The moving average of the wall-clock cost of one fixed update, in nanoseconds.
+     */
+    public double getTickCostNanos() {
+        return tickCostNanos;
+    }
+
+    /**
+     * @return Whole ticks the loop is behind real time after the last frame.
+     */
+    public double getBacklogTicks() {
+        return backlogTicks;
+    }
+
+    /**
+     * @return Ticks skipped in total because the backlog exceeded {@link Config#MAX_BACKLOG_TICKS}.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * @return Per-phase timings of this loop.
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Stops the game loop.
      */
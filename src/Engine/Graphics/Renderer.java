@@ -5,14 +5,27 @@ import Engine.Graphics.tileengine.TERenderer;
 import Engine.Graphics.tileengine.TETile;
 import Engine.Graphics.tileengine.Tileset;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Wraps the TERenderer to provide a simple, buffered interface for drawing tiles.
  * The game logic draws to an off-screen buffer, which is then rendered to the screen at once.
+ * <p>
+ * Only the cells that differ from the previously presented frame are redrawn on screen.
+ * The renderer also keeps a snapshot of the frame buffer after each layer so that a
+ * scene can redraw just its changed layers on top of the cached output below them.
  */
 public class Renderer {
     private TERenderer teRenderer;
     private int width, height;
     private TETile[][] frameBuffer;
+    private TETile[][] presented;
+    private boolean presentedValid = false;
+    private int lastDirtyCells = 0;
+
+    private final List<TETile[][]> layerCache = new ArrayList<>();
+    private Object layerCacheOwner;
 
     /**
      * Initializes the renderer and the frame buffer using engine configuration.
@@ -25,6 +38,10 @@ public class Renderer {
         this.teRenderer = new TERenderer();
         this.teRenderer.initialize(width, height);
         this.frameBuffer = new TETile[width][height];
+        this.presented = new TETile[width][height];
+        this.presentedValid = false;
+        this.layerCache.clear();
+        this.layerCacheOwner = null;
         clearFrameBuffer();
     }
 
@@ -37,10 +54,85 @@ public class Renderer {
     }
 
     /**
-     * Renders the completed frame buffer to the screen.
+     * Renders the completed frame buffer to the screen, drawing only the cells that
+     * changed since the last presented frame.
      */
     public void endFrame() {
-        teRenderer.renderFrame(frameBuffer);
+        if (!presentedValid) {
+            teRenderer.renderFrame(frameBuffer);
+            copy(frameBuffer, presented);
+            presentedValid = true;
+            lastDirtyCells = width * height;
+        } else {
+            lastDirtyCells = teRenderer.renderFrameDelta(frameBuffer, presented);
+        }
+    }
+
+    /**
+     * Forces the next frame to be presented in full, e.g. after the window was obscured.
+     */
+    public void invalidatePresentedFrame() {
+        presentedValid = false;
+    }
+
+    /**
+     * @return The number of cells redrawn on screen by the last {@link #endFrame()}.
+     */
+    public int getLastDirtyCellCount() {
+        return lastDirtyCells;
+    }
+
+    /**
+     * Hands the per-layer cache to the given owner (normally a Scene). The cache is
+     * discarded whenever the owner changes.
+     *
+     * @param owner The object that will save and restore layers.
+     * @return True if the owner already held the cache, i.e. its snapshots are usable.
+     */
+    public boolean claimLayerCache(Object owner) {
+        if (layerCacheOwner == owner) {
+            return true;
+        }
+        layerCacheOwner = owner;
+        layerCache.clear();
+        return false;
+    }
+
+    /**
+     * Stores a snapshot of the current frame buffer as the output of a layer.
+     *
+     * @param index The layer index.
+     */
+    public void saveLayer(int index) {
+        while (layerCache.size() <= index) {
+            layerCache.add(null);
+        }
+        TETile[][] snapshot = layerCache.get(index);
+        if (snapshot == null) {
+            snapshot = new TETile[width][height];
+            layerCache.set(index, snapshot);
+        }
+        copy(frameBuffer, snapshot);
+    }
+
+    /**
+     * Replaces the frame buffer with the snapshot stored for a layer.
+     *
+     * @param index The layer index.
+     * @return False if no snapshot exists for that layer.
+     */
+    public boolean restoreLayer(int index) {
+        if (index < 0 || index >= layerCache.size() || layerCache.get(index) == null) {
+            return false;
+        }
+        copy(layerCache.get(index), frameBuffer);
+        return true;
+    }
+
+    private void copy(TETile[][] from, TETile[][] to) {
+        for (int x = 0; x < width; x++) {
+            System.arraycopy(from[x], 0, to[x], 0, height);
+        }
     }
 
     /**
@@ -88,6 +88,42 @@ public class TERenderer {
         StdDraw.show();
     }
 
+    /**
+     * Draws only the tiles that differ (by identity) from the previously shown frame,
+     * then shows the canvas. The canvas is not cleared, so the previous frame must still
+     * be on it. {@code shown} is updated to match {@code world}.
+     * @param world the 2D TETile[][] array to render
+     * @param shown the frame currently on the canvas; same size as world
+     * @return the number of tiles drawn
+     */
+    public int renderFrameDelta(TETile[][] world, TETile[][] shown) {
+        int drawn = 0;
+        int numXTiles = world.length;
+        int numYTiles = world[0].length;
+        for (int x = 0; x < numXTiles; x += 1) {
+            for (int y = 0; y < numYTiles; y += 1) {
+                TETile tile = world[x][y];
+                if (tile == shown[x][y]) {
+                    continue;
+                }
+                if (tile == null) {
+                    throw new IllegalArgumentException("Tile at position x=" + x + ", y=" + y
+                            + " is null.");
+                }
+                // Picture tiles may be transparent; wipe the cell first.
+                StdDraw.setPenColor(Color.BLACK);
+                StdDraw.filledSquare(x + xOffset + 0.5, y + yOffset + 0.5, 0.5);
+                tile.draw(x + xOffset, y + yOffset);
+                shown[x][y] = tile;
+                drawn += 1;
+            }
+        }
+        if (drawn > 0) {
+            StdDraw.show();
+        }
+        return drawn;
+    }
+
     /**
      * Draws all world tiles without clearing the canvas or showing the tiles.
      * @param world the 2D TETile[][] array to render
@@ -155,6 +155,24 @@ public class TETile {
         return new TETile(t, c);
     }
 
+    /**
+     * Creates a copy of the given tile with both colors scaled toward black, e.g. for
+     * remembered but currently unseen terrain. Image tiles keep their image.
+     * @param t the tile to copy
+     * @param factor the brightness kept, from 0 (black) to 1 (unchanged)
+     */
+    public static TETile shaded(TETile t, double factor) {
+        return new TETile(t.character, scale(t.textColor, factor), scale(t.backgroundColor, factor),
+                t.description, t.filepath, t.id);
+    }
+
+    private static Color scale(Color c, double factor) {
+        if (c == null) {
+            return null;
+        }
+        return new Color((int) (c.getRed() * factor), (int) (c.getGreen() * factor), (int) (c.getBlue() * factor));
+    }
+
     private static int newColorValue(int v, int dv, Random r) {
         int rawNewValue = v + RandomUtils.uniform(r, -dv, dv + 1);
 
@@ -0,0 +1,135 @@
+package Engine;
+
+import Engine.Input.InputAction;
+import Engine.Profiling.FrameMetrics;
+import Engine.Profiling.Phase;
+import Engine.Scene.Scene;
+
+/**
+ * Runs a scene stack without a window and without the real-time clock. Each call to
+ * {@link #run(long, InputAction)} performs fixed-step updates back to back, as fast
+ * as the CPU allows, with rendering disabled. Use it to soak-test game logic (AI,
+ * collisions) for hours of simulated time in seconds.
+ * <p>
+ * Input must come from an InputAction that does not read StdDraw, such as
+ * {@link Engine.Input.ScriptedInputAction}. Asynchronous scene loads are awaited
+ * synchronously so that no ticks are spent on loading screens.
+ */
+public class HeadlessRunner {
+
+    /**
+     * The outcome of a run.
+     *
+     * @param ticks        The number of fixed steps performed.
+     * @param elapsedNanos The wall-clock time the run took.
+     * @param simSeconds   The simulated time covered by the run.
+     */
+    public record Report(long ticks, long elapsedNanos, double simSeconds) {
+        /**
+         * @return Fixed steps performed per wall-clock second.
+         */
+        public double ticksPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : ticks * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return How many times faster than real time the run was.
+         */
+        public double speedup() {
+            return elapsedNanos == 0 ? 0.0 : simSeconds * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ticks (%.1f s simulated) in %.1f ms: %.0f ticks/s, %.0fx real time",
+                    ticks, simSeconds, elapsedNanos / 1e6, ticksPerSecond(), speedup());
+        }
+    }
+
+    private final Config config;
+    private final SceneManager sceneManager;
+    private final FrameMetrics metrics = new FrameMetrics();
+    private final double fixedDt;
+    private final long stepNanos;
+    private long tick = 0;
+
+    public HeadlessRunner(Config config) {
+        this.config = config;
+        this.sceneManager = new SceneManager(config, metrics);
+        this.fixedDt = 1.0 / config.TICK_RATE;
+        this.stepNanos = Math.round(1_000_000_000 / config.TICK_RATE);
+    }
+
+    /**
+     * Registers the initial scene.
+     *
+     * @param initialScene The first scene to run.
+     */
+    public void register(Scene initialScene) {
+        sceneManager.push(initialScene);
+        sceneManager.awaitPendingLoad();
+    }
+
+    /**
+     * Runs fixed-step updates until the tick count is reached or the scene stack empties.
+     *
+     * @param ticks The number of ticks to run.
+     * @param input The input source; must not depend on a window.
+     * @return A report with the achieved tick rate.
+     */
+    public Report run(long ticks, InputAction input) {
+        long start = System.nanoTime();
+        long done = 0;
+        while (done < ticks && sceneManager.hasScene()) {
+            long inputStart = System.nanoTime();
+            input.updateInputState();
+            long updateStart = System.nanoTime();
+            metrics.record(Phase.INPUT, updateStart - inputStart);
+            input.beginTick(tick, tick * stepNanos);
+            Scene scene = sceneManager.getCurrentScene();
+            scene.update(fixedDt, input);
+            metrics.record(Phase.UPDATE, System.nanoTime() - updateStart);
+            if (config.DETERMINISTIC && tick % config.CHECKSUM_INTERVAL_TICKS == 0) {
+                input.endTick(scene.getStateHash());
+            }
+            scene.resetRenderRequest(); // rendering is disabled
+            sceneManager.handleTransition();
+            sceneManager.awaitPendingLoad();
+            tick++;
+            done++;
+        }
+        return new Report(done, System.nanoTime() - start, done * fixedDt);
+    }
+
+    /**
+     * Runs for a span of simulated time.
+     *
+     * @param simSeconds The simulated time to cover.
+     * @param input      The input source; must not depend on a window.
+     * @return A report with the achieved tick rate.
+     */
+    public Report runFor(double simSeconds, InputAction input) {
+        return run((long) Math.ceil(simSeconds * config.TICK_RATE), input);
+    }
+
+    /**
+     * @return The scene currently on top of the stack, or null if the stack is empty.
+     */
+    public Scene getCurrentScene() {
+        return sceneManager.getCurrentScene();
+    }
+
+    /**
+     * @return Per-phase timings of this runner's ticks (no render phases).
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The total number of ticks run so far.
+     */
+    public long getTick() {
+        return tick;
+    }
+}
@@ -1,54 +1,237 @@
 package Engine.Input;
 
+import edu.princeton.cs.algs4.DrawListener;
 import edu.princeton.cs.algs4.StdDraw;
 
 import java.awt.event.KeyEvent;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 import Engine.Utils.Vector2i;
 
 /**
  * Manages user input: queued key types, continuous key holds, mouse, and now
  * engine-level movement rate limiting for directional movement.
+ * <p>
+ * This default implementation listens to StdDraw. Key events are stamped with
+ * {@link System#nanoTime()} on the AWT thread and put in a lock-free
+ * {@link InputEventQueue}. Before each fixed-step update the loop calls
+ * {@link #beginTick(long, long, long)}, which applies exactly the events that
+ * happened before that tick's deadline, so key state and typed keys land in the
+ * right tick even during catch-up.
+ * <p>
+ * Subclasses can supply input from elsewhere (scripts, recordings) by overriding
+ * {@link #updateInputState()}, {@link #applyInput(long, long)},
+ * {@link #isKeyPressed(int)} and the mouse helpers. Any input can be captured
+ * tick by tick with {@link #setRecorder(InputRecorder)}.
  */
 public class InputAction {
+    private static final int KEY_CODES = 256;
+
+    private final InputEventQueue events = new InputEventQueue(1024);
+    private final boolean[] keysDown = new boolean[KEY_CODES];
+    private char[] typed = new char[64];
+    private int typedHead = 0;
+    private int typedSize = 0;
+    private boolean listening = false;
+    private int mouseX = 0;
+    private int mouseY = 0;
+
+    private InputRecorder recorder;
+    private char[] tickTyped = new char[16]; // typed this tick, for the recorder
+    private int tickTypedCount = 0;
 
-    private final Queue<Character> typedKeys = new LinkedList<>();
     private long lastMoveNano = 0L; // for movement rate limiting
+    private boolean hasMoved = false;
+    private long tickNanos = 0L;
 
     /**
-     * Capture new key-typed events.
+     * Called once per frame. Starts listening to StdDraw on the first call.
      */
     public void updateInputState() {
+        if (!listening) {
+            listening = true;
+            StdDraw.addListener(new Listener());
+        }
+        // Key events arrive through the listener; keep StdDraw's own queue from growing.
         while (StdDraw.hasNextKeyTyped()) {
-            typedKeys.add(StdDraw.nextKeyTyped());
+            StdDraw.nextKeyTyped();
+        }
+    }
+
+    /**
+     * Called by the loop before each fixed-step update. Time-based helpers such as
+     * {@link #pollMovement(double)} measure time in simulated ticks, so they behave
+     * the same whether the simulation runs in real time or fast-forwarded.
+     * Every queued event is applied.
+     *
+     * @param tick     The index of the tick about to run.
+     * @param simNanos The simulated time at the start of that tick, in nanoseconds.
+     */
+    public final void beginTick(long tick, long simNanos) {
+        beginTick(tick, simNanos, Long.MAX_VALUE);
+    }
+
+    /**
+     * Called by the loop before each fixed-step update. Applies the queued input
+     * events stamped before {@code deadlineNanos}; later events stay queued for
+     * later ticks.
+     *
+     * @param tick          The index of the tick about to run.
+     * @param simNanos      The simulated time at the start of that tick, in nanoseconds.
+     * @param deadlineNanos The wall-clock time ({@link System#nanoTime()}) at which the
+     *                      tick became due.
+     */
+    public final void beginTick(long tick, long simNanos, long deadlineNanos) {
+        this.tickNanos = simNanos;
+        this.tickTypedCount = 0;
+        applyInput(tick, deadlineNanos);
+        if (recorder != null) {
+            recorder.record(this, tickTyped, tickTypedCount);
+        }
+    }
+
+    /**
+     * Called by the loop after a fixed-step update in deterministic mode with the
+     * scene's state hash. The default passes it to the recorder, if any.
+     *
+     * @param stateHash The scene's {@code getStateHash()} after the update.
+     */
+    public void endTick(long stateHash) {
+        if (recorder != null) {
+            recorder.recordChecksum(stateHash);
+        }
+    }
+
+    /**
+     * Brings typed keys, key state and mouse up to date for the tick about to run.
+     * The default applies the queued StdDraw events stamped before the deadline.
+     *
+     * @param tick          The index of the tick about to run.
+     * @param deadlineNanos The wall-clock time at which the tick became due.
+     */
+    protected void applyInput(long tick, long deadlineNanos) {
+        // Sampled once per tick so the whole update (and a recording) sees one position.
+        mouseX = (int) StdDraw.mouseX();
+        mouseY = (int) StdDraw.mouseY();
+        while (!events.isEmpty() && events.peekTime() - deadlineNanos <= 0) {
+            int code = events.peekCode();
+            switch (events.peekType()) {
+                case InputEventQueue.KEY_TYPED -> enqueueTyped((char) code);
+                case InputEventQueue.KEY_PRESSED -> setKeyState(code, true);
+                case InputEventQueue.KEY_RELEASED -> setKeyState(code, false);
+                default -> { }
+            }
+            events.pop();
+        }
+    }
+
+    /**
+     * @return The simulated time passed to the last {@link #beginTick(long, long)}.
+     */
+    protected long tickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Adds a key-typed event to the queue; for subclasses that produce their own input.
+     */
+    protected void enqueueTyped(char c) {
+        if (recorder != null) {
+            if (tickTypedCount == tickTyped.length) {
+                tickTyped = Arrays.copyOf(tickTyped, tickTyped.length * 2);
+            }
+            tickTyped[tickTypedCount++] = c;
+        }
+        if (typedSize == typed.length) {
+            char[] grown = new char[typed.length * 2];
+            for (int i = 0; i < typedSize; i++) {
+                grown[i] = typed[(typedHead + i) % typed.length];
+            }
+            typed = grown;
+            typedHead = 0;
+        }
+        typed[(typedHead + typedSize) % typed.length] = c;
+        typedSize++;
+    }
+
+    /**
+     * Whether a key was held down as of the current tick.
+     *
+     * @param keyCode A {@link KeyEvent} virtual key code.
+     */
+    protected boolean isKeyPressed(int keyCode) {
+        return keyCode >= 0 && keyCode < KEY_CODES && keysDown[keyCode];
+    }
+
+    private void setKeyState(int keyCode, boolean down) {
+        if (keyCode >= 0 && keyCode < KEY_CODES) {
+            keysDown[keyCode] = down;
         }
     }
 
+    /**
+     * Captures the input of every following tick (typed keys, key states, mouse tile).
+     *
+     * @param recorder The recorder to write to, or null to stop recording.
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return Input events dropped because the queue overflowed.
+     */
+    public long getDroppedEvents() {
+        return events.getDropped();
+    }
+
     // Mouse helpers
-    public int mouseTileX() { return (int) StdDraw.mouseX(); }
-    public int mouseTileY() { return (int) StdDraw.mouseY(); }
+    public int mouseTileX() { return mouseX; }
+    public int mouseTileY() { return mouseY; }
 
     // Key typed queue
-    public boolean hasNextKeyTyped() { return !typedKeys.isEmpty(); }
-    public char getNextKeyTyped() { return typedKeys.poll(); }
-    public char peekNextKey() { return typedKeys.peek(); }
+    public boolean hasNextKeyTyped() { return typedSize > 0; }
+
+    /**
+     * @throws NoSuchElementException If no typed key is queued; check {@link #hasNextKeyTyped()} first.
+     */
+    public char getNextKeyTyped() {
+        if (typedSize == 0) {
+            throw new NoSuchElementException("No typed key queued");
+        }
+        char c = typed[typedHead];
+        typedHead = (typedHead + 1) % typed.length;
+        typedSize--;
+        return c;
+    }
+
+    /**
+     * @throws NoSuchElementException If no typed key is queued.
+     */
+    public char peekNextKey() {
+        if (typedSize == 0) {
+            throw new NoSuchElementException("No typed key queued");
+        }
+        return typed[typedHead];
+    }
 
     // Continuous key state
-    public boolean isWDown() { return StdDraw.isKeyPressed(KeyEvent.VK_W); }
-    public boolean isADown() { return StdDraw.isKeyPressed(KeyEvent.VK_A); }
-    public boolean isSDown() { return StdDraw.isKeyPressed(KeyEvent.VK_S); }
-    public boolean isDDown() { return StdDraw.isKeyPressed(KeyEvent.VK_D); }
-    public boolean isUpArrowDown() { return StdDraw.isKeyPressed(KeyEvent.VK_UP); }
-    public boolean isLeftArrowDown() { return StdDraw.isKeyPressed(KeyEvent.VK_LEFT); }
-    public boolean isDownArrowDown() { return StdDraw.isKeyPressed(KeyEvent.VK_DOWN); }
-    public boolean isRightArrowDown() { return StdDraw.isKeyPressed(KeyEvent.VK_RIGHT); }
-    public boolean isShiftDown() { return StdDraw.isKeyPressed(KeyEvent.VK_SHIFT); }
+    public boolean isWDown() { return isKeyPressed(KeyEvent.VK_W); }
+    public boolean isADown() { return isKeyPressed(KeyEvent.VK_A); }
+    public boolean isSDown() { return isKeyPressed(KeyEvent.VK_S); }
+    public boolean isDDown() { return isKeyPressed(KeyEvent.VK_D); }
+    public boolean isUpArrowDown() { return isKeyPressed(KeyEvent.VK_UP); }
+    public boolean isLeftArrowDown() { return isKeyPressed(KeyEvent.VK_LEFT); }
+    public boolean isDownArrowDown() { return isKeyPressed(KeyEvent.VK_DOWN); }
+    public boolean isRightArrowDown() { return isKeyPressed(KeyEvent.VK_RIGHT); }
+    public boolean isShiftDown() { return isKeyPressed(KeyEvent.VK_SHIFT); }
+    public boolean isF3Down() { return isKeyPressed(KeyEvent.VK_F3); }
 
     /**
      * Returns a movement vector at most once per interval while directional keys are held.
      * Priority order: W,S,A,D (can be adjusted). Holding a key yields repeated movement
-     * spaced by intervalSec. If no key or interval not elapsed, returns Vector2i.ZERO.
+     * spaced by intervalSec of simulated time. If no key or interval not elapsed, returns
+     * Vector2i.ZERO.
      *
      * @param intervalSec minimum seconds between successive movement steps
      */
@@ -59,10 +242,11 @@ public class InputAction {
         else if (isADown()) dir = Vector2i.LEFT;
         else if (isDDown()) dir = Vector2i.RIGHT;
         if (dir.equals(Vector2i.ZERO)) return Vector2i.ZERO;
-        long now = System.nanoTime();
+        long now = tickNanos;
         long needed = (long) (intervalSec * 1_000_000_000L);
-        if (lastMoveNano == 0L || now - lastMoveNano >= needed) {
+        if (!hasMoved || now - lastMoveNano >= needed) {
             lastMoveNano = now;
+            hasMoved = true;
             return dir;
         }
         return Vector2i.ZERO;
@@ -71,5 +255,35 @@ public class InputAction {
     /**
      * Resets movement rate limiter (e.g., when pausing/unpausing) so next key yields immediate step.
      */
-    public void resetMovementTimer() { lastMoveNano = 0L; }
+    public void resetMovementTimer() { hasMoved = false; }
+
+    // Runs on the AWT event thread; only stamps and enqueues.
+    private final class Listener implements DrawListener {
+        @Override
+        public void keyTyped(char c) {
+            events.offer(InputEventQueue.KEY_TYPED, c, System.nanoTime());
+        }
+
+        @Override
+        public void keyPressed(int keycode) {
+            events.offer(InputEventQueue.KEY_PRESSED, keycode, System.nanoTime());
+        }
+
+        @Override
+        public void keyReleased(int keycode) {
+            events.offer(InputEventQueue.KEY_RELEASED, keycode, System.nanoTime());
+        }
+
+        @Override
+        public void mousePressed(double x, double y) { }
+
+        @Override
+        public void mouseDragged(double x, double y) { }
+
+        @Override
+        public void mouseReleased(double x, double y) { }
+
+        @Override
+        public void mouseClicked(double x, double y) { }
+    }
 }
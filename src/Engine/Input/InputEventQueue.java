@@ -0,0 +1,100 @@
+package Engine.Input;
+
+/**
+ * A fixed-size ring buffer of timestamped input events, stored in primitive arrays.
+ * <p>
+ * It is lock-free for one producer and one consumer: the AWT event thread offers
+ * events as they happen, and the game thread reads them back in order. Publishing
+ * happens through the volatile write of the producer's sequence number, so the
+ * consumer always sees an event's fields complete. When the buffer is full, new
+ * events are dropped and counted.
+ */
+public final class InputEventQueue {
+    public static final int KEY_TYPED = 1;
+    public static final int KEY_PRESSED = 2;
+    public static final int KEY_RELEASED = 3;
+
+    private final int mask;
+    private final long[] times;
+    private final int[] types;
+    private final int[] codes;
+
+    private volatile long writeSeq = 0; // written only by the producer
+    private volatile long readSeq = 0;  // written only by the consumer
+    private volatile long dropped = 0;
+
+    /**
+     * @param capacity The number of events the buffer holds; rounded up to a power of two.
+     */
+    public InputEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.times = new long[size];
+        this.types = new int[size];
+        this.codes = new int[size];
+    }
+
+    /**
+     * Appends an event. Producer side only.
+     *
+     * @param type  One of the event type constants.
+     * @param code  The character (KEY_TYPED) or virtual key code.
+     * @param nanos When the event happened, from {@link System#nanoTime()}.
+     * @return False if the buffer was full and the event was dropped.
+     */
+    public boolean offer(int type, int code, long nanos) {
+        long seq = writeSeq;
+        if (seq - readSeq > mask) {
+            dropped++;
+            return false;
+        }
+        int i = (int) seq & mask;
+        times[i] = nanos;
+        types[i] = type;
+        codes[i] = code;
+        writeSeq = seq + 1; // publishes the fields above
+        return true;
+    }
+
+    /**
+     * @return True if there is no event to read. Consumer side only.
+     */
+    public boolean isEmpty() {
+        return readSeq == writeSeq;
+    }
+
+    /**
+     * @return The timestamp of the oldest event; only valid if not empty.
+     */
+    public long peekTime() {
+        return times[(int) readSeq & mask];
+    }
+
+    /**
+     * @return The type of the oldest event; only valid if not empty.
+     */
+    public int peekType() {
+        return types[(int) readSeq & mask];
+    }
+
+    /**
+     * @return The code of the oldest event; only valid if not empty.
+     */
+    public int peekCode() {
+        return codes[(int) readSeq & mask];
+    }
+
+    /**
+     * Discards the oldest event. Consumer side only.
+     */
+    public void pop() {
+        readSeq = readSeq + 1;
+    }
+
+    /**
+     * @return The number of events dropped because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,186 @@
+package Engine.Input;
+
+import java.awt.event.KeyEvent;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the per-tick input of a session to a compact binary file that
+ * {@link ReplayInputAction} can play back. Attach it with
+ * {@link InputAction#setRecorder(InputRecorder)}.
+ * <p>
+ * Only ticks where something changed are written: a varint gap from the previous
+ * record, a flag byte, then the new key bitmask, mouse tile and/or typed characters.
+ * An idle tick costs nothing and a typical tick with one key change costs three
+ * bytes. The header holds the session seed and tick rate. The file stays readable
+ * if the process dies mid-write; only the unfinished record is lost.
+ * <p>
+ * In deterministic mode the loop also reports state checksums, which are stored
+ * alongside the input so that a replay can tell exactly where it diverged.
+ */
+public final class InputRecorder implements Closeable {
+    static final int MAGIC = 0x54524543; // "TREC"
+    static final int VERSION = 1;
+
+    // Keys whose held state is recorded, one bit each.
+    static final int[] KEYS = {
+            KeyEvent.VK_W, KeyEvent.VK_A, KeyEvent.VK_S, KeyEvent.VK_D,
+            KeyEvent.VK_UP, KeyEvent.VK_LEFT, KeyEvent.VK_DOWN, KeyEvent.VK_RIGHT,
+            KeyEvent.VK_SHIFT, KeyEvent.VK_F3
+    };
+
+    static final int F_KEYS = 1;
+    static final int F_MOUSE = 2;
+    static final int F_TYPED = 4;
+    static final int F_END = 8;
+    static final int F_CHECKSUM = 16;
+
+    private final DataOutputStream out;
+    private long tick = 0;
+    private long lastRecordTick = 0;
+    private int lastKeys = 0;
+    private int lastMouseX = -1;
+    private int lastMouseY = -1;
+    private boolean failed = false;
+
+    /**
+     * Creates or truncates a recording file.
+     *
+     * @param path     The file to write.
+     * @param seed     The seed of the session, stored for the replay.
+     * @param tickRate The fixed tick rate of the session.
+     * @throws IOException If the file cannot be created.
+     */
+    public InputRecorder(Path path, long seed, double tickRate) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeDouble(tickRate);
+    }
+
+    /**
+     * Called by {@link InputAction#beginTick(long, long, long)} after the tick's input is applied.
+     */
+    void record(InputAction input, char[] typed, int typedCount) {
+        if (failed) {
+            return;
+        }
+        int keys = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (input.isKeyPressed(KEYS[i])) {
+                keys |= 1 << i;
+            }
+        }
+        int mouseX = input.mouseTileX();
+        int mouseY = input.mouseTileY();
+
+        int flags = 0;
+        if (keys != lastKeys) flags |= F_KEYS;
+        if (mouseX != lastMouseX || mouseY != lastMouseY) flags |= F_MOUSE;
+        if (typedCount > 0) flags |= F_TYPED;
+
+        try {
+            if (flags != 0) {
+                writeVarLong(out, tick - lastRecordTick);
+                out.writeByte(flags);
+                if ((flags & F_KEYS) != 0) {
+                    writeVarLong(out, keys);
+                }
+                if ((flags & F_MOUSE) != 0) {
+                    writeVarLong(out, zigZag(mouseX));
+                    writeVarLong(out, zigZag(mouseY));
+                }
+                if ((flags & F_TYPED) != 0) {
+                    writeVarLong(out, typedCount);
+                    for (int i = 0; i < typedCount; i++) {
+                        writeVarLong(out, typed[i]);
+                    }
+                }
+                lastRecordTick = tick;
+                lastKeys = keys;
+                lastMouseX = mouseX;
+                lastMouseY = mouseY;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            failed = true;
+        }
+        tick++;
+    }
+
+    /**
+     * Called through {@link InputAction#endTick(long)} after the tick's update.
+     */
+    void recordChecksum(long stateHash) {
+        if (failed || tick == 0) {
+            return;
+        }
+        long updatedTick = tick - 1;
+        try {
+            writeVarLong(out, updatedTick - lastRecordTick);
+            out.writeByte(F_CHECKSUM);
+            out.writeLong(stateHash);
+            lastRecordTick = updatedTick;
+        } catch (IOException e) {
+            e.printStackTrace();
+            failed = true;
+        }
+    }
+
+    /**
+     * @return The number of ticks recorded so far.
+     */
+    public long getTicks() {
+        return tick;
+    }
+
+    /**
+     * Writes the end marker (so the replay knows the session length) and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!failed) {
+                writeVarLong(out, tick - lastRecordTick);
+                out.writeByte(F_END);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    static long zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    static int unZigZag(long v) {
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
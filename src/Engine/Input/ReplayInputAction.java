@@ -0,0 +1,211 @@
+package Engine.Input;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plays back a file written by {@link InputRecorder}, one recorded tick per
+ * {@link #beginTick(long, long, long)}. Use it in place of the live input in the
+ * GameLoop to watch a session in real time, or in a
+ * {@link Engine.HeadlessRunner} to re-run it as fast as possible, e.g. as a
+ * repeatable benchmark. Start the session with {@link #getSeed()}.
+ * <p>
+ * If the recording holds state checksums, {@link #endTick(long)} compares them with
+ * the replayed state and reports the first tick where the two runs diverge.
+ */
+public class ReplayInputAction extends InputAction {
+
+    // One change record.
+    private record Change(long tick, int flags, int keys, int mouseX, int mouseY, char[] typed) {
+    }
+
+    private final long seed;
+    private final double tickRate;
+    private final List<Change> changes;
+    private final Map<Long, Long> checksums;
+    private final long length;
+
+    private int next = 0;
+    private long tick = 0;
+    private int keys = 0;
+    private int mouseX = -1;
+    private int mouseY = -1;
+    private long checksumsVerified = 0;
+    private long divergedAt = -1;
+
+    private ReplayInputAction(long seed, double tickRate, List<Change> changes, Map<Long, Long> checksums,
+                              long length) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.changes = changes;
+        this.checksums = checksums;
+        this.length = length;
+    }
+
+    /**
+     * Reads a recording. A file cut off mid-write is accepted up to its last complete record.
+     *
+     * @param path The recording.
+     * @return A replay positioned at the first tick.
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    public static ReplayInputAction load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException("Not an input recording: " + path);
+            }
+            int version = in.readUnsignedByte();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version + ": " + path);
+            }
+            long seed = in.readLong();
+            double tickRate = in.readDouble();
+
+            List<Change> changes = new ArrayList<>();
+            Map<Long, Long> checksums = new HashMap<>();
+            long tick = 0;
+            long length = -1;
+            try {
+                while (true) {
+                    tick += InputRecorder.readVarLong(in);
+                    int flags = in.readUnsignedByte();
+                    if ((flags & InputRecorder.F_END) != 0) {
+                        length = tick;
+                        break;
+                    }
+                    if ((flags & InputRecorder.F_CHECKSUM) != 0) {
+                        checksums.put(tick, in.readLong());
+                        continue;
+                    }
+                    int keys = 0, mouseX = 0, mouseY = 0;
+                    char[] typed = null;
+                    if ((flags & InputRecorder.F_KEYS) != 0) {
+                        keys = (int) InputRecorder.readVarLong(in);
+                    }
+                    if ((flags & InputRecorder.F_MOUSE) != 0) {
+                        mouseX = InputRecorder.unZigZag(InputRecorder.readVarLong(in));
+                        mouseY = InputRecorder.unZigZag(InputRecorder.readVarLong(in));
+                    }
+                    if ((flags & InputRecorder.F_TYPED) != 0) {
+                        typed = new char[(int) InputRecorder.readVarLong(in)];
+                        for (int i = 0; i < typed.length; i++) {
+                            typed[i] = (char) InputRecorder.readVarLong(in);
+                        }
+                    }
+                    changes.add(new Change(tick, flags, keys, mouseX, mouseY, typed));
+                }
+            } catch (EOFException e) {
+                // Truncated recording: keep the complete records.
+            }
+            if (length < 0) {
+                length = changes.isEmpty() ? 0 : changes.getLast().tick() + 1;
+            }
+            return new ReplayInputAction(seed, tickRate, changes, checksums, length);
+        }
+    }
+
+    @Override
+    public void updateInputState() {
+        // Input comes from the recording; nothing to poll.
+    }
+
+    @Override
+    protected void applyInput(long tick, long deadlineNanos) {
+        while (next < changes.size() && changes.get(next).tick() == this.tick) {
+            Change c = changes.get(next++);
+            if ((c.flags() & InputRecorder.F_KEYS) != 0) {
+                keys = c.keys();
+            }
+            if ((c.flags() & InputRecorder.F_MOUSE) != 0) {
+                mouseX = c.mouseX();
+                mouseY = c.mouseY();
+            }
+            if (c.typed() != null) {
+                for (char ch : c.typed()) {
+                    enqueueTyped(ch);
+                }
+            }
+        }
+        this.tick++;
+    }
+
+    @Override
+    public void endTick(long stateHash) {
+        super.endTick(stateHash);
+        Long expected = checksums.get(tick - 1);
+        if (expected == null) {
+            return;
+        }
+        checksumsVerified++;
+        if (divergedAt < 0 && expected != stateHash) {
+            divergedAt = tick - 1;
+            System.err.println("Replay diverged from the recording at tick " + divergedAt);
+        }
+    }
+
+    /**
+     * @return The first tick whose state hash differed from the recording, or -1.
+     */
+    public long getDivergedTick() {
+        return divergedAt;
+    }
+
+    /**
+     * @return How many recorded checksums have been compared so far.
+     */
+    public long getChecksumsVerified() {
+        return checksumsVerified;
+    }
+
+    @Override
+    protected boolean isKeyPressed(int keyCode) {
+        for (int i = 0; i < InputRecorder.KEYS.length; i++) {
+            if (InputRecorder.KEYS[i] == keyCode) {
+                return (keys & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int mouseTileX() { return mouseX; }
+
+    @Override
+    public int mouseTileY() { return mouseY; }
+
+    /**
+     * @return The seed stored with the recording.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The tick rate the session was recorded at.
+     */
+    public double getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * @return The number of ticks in the recording.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return True once every recorded tick has been played.
+     */
+    public boolean isFinished() {
+        return tick >= length;
+    }
+}
@@ -0,0 +1,112 @@
+package Engine.Input;
+
+import java.util.Arrays;
+
+/**
+ * An InputAction that never touches StdDraw. Input is produced by a {@link Script}
+ * that is called at the start of every tick, which makes it suitable for headless
+ * runs, bots and automated tests.
+ */
+public class ScriptedInputAction extends InputAction {
+
+    /**
+     * Produces the input for one tick.
+     */
+    @FunctionalInterface
+    public interface Script {
+        /**
+         * @param tick  The index of the tick about to run.
+         * @param input The input to modify (type keys, hold keys, move the mouse).
+         */
+        void apply(long tick, ScriptedInputAction input);
+    }
+
+    private static final int KEY_CODES = 256;
+
+    private final Script script;
+    private final boolean[] keysDown = new boolean[KEY_CODES];
+    private int mouseX = -1;
+    private int mouseY = -1;
+
+    /**
+     * Constructs an input with no script; drive it by calling the setters directly.
+     */
+    public ScriptedInputAction() {
+        this(null);
+    }
+
+    /**
+     * Constructs an input driven by a script.
+     *
+     * @param script Called at the start of each tick, may be null.
+     */
+    public ScriptedInputAction(Script script) {
+        this.script = script;
+    }
+
+    @Override
+    public void updateInputState() {
+        // Input is produced by the script; nothing to poll.
+    }
+
+    @Override
+    protected void applyInput(long tick, long deadlineNanos) {
+        if (script != null) {
+            script.apply(tick, this);
+        }
+    }
+
+    @Override
+    protected boolean isKeyPressed(int keyCode) {
+        return keyCode >= 0 && keyCode < KEY_CODES && keysDown[keyCode];
+    }
+
+    @Override
+    public int mouseTileX() { return mouseX; }
+
+    @Override
+    public int mouseTileY() { return mouseY; }
+
+    /**
+     * Queues a key-typed event.
+     */
+    public void type(char c) {
+        enqueueTyped(c);
+    }
+
+    /**
+     * Queues every character of a string as key-typed events.
+     */
+    public void type(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            enqueueTyped(text.charAt(i));
+        }
+    }
+
+    /**
+     * Holds or releases a key.
+     *
+     * @param keyCode A {@link java.awt.event.KeyEvent} virtual key code.
+     * @param down    True to hold the key.
+     */
+    public void setKeyDown(int keyCode, boolean down) {
+        if (keyCode >= 0 && keyCode < KEY_CODES) {
+            keysDown[keyCode] = down;
+        }
+    }
+
+    /**
+     * Releases all held keys.
+     */
+    public void releaseAllKeys() {
+        Arrays.fill(keysDown, false);
+    }
+
+    /**
+     * Moves the mouse to a screen tile.
+     */
+    public void setMouseTile(int x, int y) {
+        this.mouseX = x;
+        this.mouseY = y;
+    }
+}
@@ -0,0 +1,57 @@
+package Engine.Pathfinding;
+
+import Engine.Utils.Vector2i;
+
+/**
+ * A {@link Grid} backed by a plain {@code boolean[]}, for maps that only know
+ * their walkable cells as a list of positions.
+ */
+public class BoolGrid implements Grid {
+    private final int width;
+    private final int height;
+    private final boolean[] walkable;
+
+    /**
+     * Creates a grid where every cell is blocked.
+     */
+    public BoolGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.walkable = new boolean[width * height];
+    }
+
+    /**
+     * Creates a grid where exactly the given cells are walkable.
+     *
+     * @param floor The walkable cells; positions outside the grid are ignored.
+     */
+    public BoolGrid(int width, int height, Iterable<Vector2i> floor) {
+        this(width, height);
+        for (Vector2i p : floor) {
+            if (p.x() >= 0 && p.y() >= 0 && p.x() < width && p.y() < height) {
+                walkable[p.y() * width + p.x()] = true;
+            }
+        }
+    }
+
+    public void setWalkable(int x, int y, boolean value) {
+        if (inBounds(x, y)) {
+            walkable[y * width + x] = value;
+        }
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && walkable[y * width + x];
+    }
+}
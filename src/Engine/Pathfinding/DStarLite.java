@@ -0,0 +1,336 @@
+package Engine.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * An incremental planner for an agent chasing a moving target, after Moving Target
+ * D* Lite (Sun, Yeoh and Koenig). It keeps its search between calls to
+ * {@link #findPath} and repairs it instead of searching again.
+ * <p>
+ * The search grows from the agent toward the target, and each reached cell keeps a
+ * parent on its shortest path from the agent:
+ * <ul>
+ * <li>When the target moves, the distances found so far stay valid. Only the
+ * heuristic changes, which is absorbed by a key offset ({@code km}) as in D* Lite,
+ * and the search resumes until it reaches the new target. A target that is already
+ * inside the searched area costs no expansions at all.</li>
+ * <li>When the agent moves to a settled cell of the search, the search is re-rooted
+ * there. Distances are kept relative to the agent's own, which stays exact for the
+ * cells whose shortest path passes through the new cell and is a lower bound for the
+ * others. Only the old root is left inconsistent, and the cells behind the agent are
+ * corrected only as far as the path to the target depends on them.</li>
+ * <li>When the grid changes, report the cell with {@link #cellChanged(int, int)},
+ * or create the planner with {@link #following(WalkabilityMask)}; only the cells
+ * whose distance changed are re-expanded.</li>
+ * </ul>
+ * The search starts over when the target jumps further than
+ * {@link #setResetDistance(int)} cells, or the agent moves to a cell the search has
+ * not settled.
+ * <p>
+ * Each instance serves one agent and holds, per grid cell, two ints of distances, a
+ * parent, a generation stamp (so a restart does not clear them) and its open list's
+ * position, slot and key: about 32 bytes per cell, e.g. 0.7 MB on a 200 x 110 map.
+ */
+public class DStarLite implements GridPathfinder {
+
+    /** How far the target may move between calls, by default, before the search restarts. */
+    public static final int DEFAULT_RESET_DISTANCE = 8;
+
+    private static final int INF = Integer.MAX_VALUE / 4;
+    // Restart before stored distances, which grow with every re-rooting, get near INF.
+    private static final int MAX_BASE = INF / 4;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final Grid grid;
+    private final int width;
+    private final int[] g;
+    private final int[] rhs;
+    private final int[] parent;
+    private final int[] stamp; // generation in which g/rhs/parent were set; older entries read as INF
+    private final IndexedMinHeap open;
+
+    private boolean initialized = false;
+    private int start = -1;
+    private int goal = -1;
+    private int km = 0;
+    private int base = 0; // the stored distance of the start; g and rhs count from it
+    private int expanded = 0;
+    private int resetDistance = DEFAULT_RESET_DISTANCE;
+    private int generation = 0;
+
+    public DStarLite(Grid grid) {
+        this.grid = grid;
+        this.width = grid.width();
+        int cells = grid.width() * grid.height();
+        this.g = new int[cells];
+        this.rhs = new int[cells];
+        this.parent = new int[cells];
+        this.stamp = new int[cells];
+        this.open = new IndexedMinHeap(cells);
+    }
+
+    /**
+     * Creates a planner over the mask that repairs its search by itself whenever a
+     * cell of the mask changes, e.g. through {@code TileMap.setTile}.
+     */
+    public static DStarLite following(WalkabilityMask mask) {
+        DStarLite finder = new DStarLite(mask);
+        mask.addListener((x, y, walkable, cost) -> finder.cellChanged(x, y));
+        return finder;
+    }
+
+    @Override
+    public int findPath(int startX, int startY, int goalX, int goalY, int[] out) {
+        expanded = 0;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        int s = startY * width + startX;
+        int t = goalY * width + goalX;
+        if (!initialized || manhattan(goal, t) > resetDistance) {
+            initialize(s, t);
+        } else {
+            if (t != goal) {
+                km += manhattan(goal, t);
+                goal = t;
+            }
+            if (s != start && !reroot(s)) {
+                initialize(s, t);
+            }
+        }
+        computeShortestPath();
+        if (rhsOf(goal) >= INF) {
+            return NO_PATH;
+        }
+        return writePath(out);
+    }
+
+    /**
+     * Repairs the search after the walkability of a cell changed in the grid.
+     */
+    public void cellChanged(int x, int y) {
+        if (!initialized || !grid.inBounds(x, y)) {
+            return;
+        }
+        int v = y * width + x;
+        if (v == start) {
+            if (!grid.isWalkable(x, y)) {
+                initialized = false; // nothing to root the search at
+            }
+            return;
+        }
+        refresh(v);
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            if (grid.inBounds(nx, ny) && ny * width + nx != start) {
+                refresh(ny * width + nx);
+            }
+        }
+    }
+
+    /**
+     * Sets how far the target may move between calls for the search to be repaired
+     * rather than started over. Larger jumps loosen the keys of the open list, so
+     * past a few cells a fresh search is cheaper.
+     */
+    public void setResetDistance(int cells) {
+        this.resetDistance = cells;
+    }
+
+    /**
+     * Forgets the search, e.g. after large changes to the grid.
+     */
+    public void reset() {
+        initialized = false;
+    }
+
+    @Override
+    public Grid grid() {
+        return grid;
+    }
+
+    @Override
+    public int getLastExpandedCount() {
+        return expanded;
+    }
+
+    private void initialize(int s, int t) {
+        nextGeneration();
+        open.clear();
+        km = 0;
+        base = 0;
+        start = s;
+        goal = t;
+        setRhs(s, 0);
+        open.upsert(s, key(s));
+        initialized = true;
+    }
+
+    // Moves the root of the search to a settled cell of the tree. Distances are kept
+    // relative to base, so the move is a matter of raising base to the new root's
+    // distance: that is exact for the subtree below the new root, and a lower bound
+    // everywhere else. Only the old root becomes inconsistent, and the search then
+    // corrects the cells behind the agent as far as the path to the target needs it.
+    // False if the cell is not settled, i.e. the search must restart.
+    private boolean reroot(int s) {
+        int distance = gOf(s);
+        if (distance >= INF || distance != rhsOf(s) || distance > MAX_BASE) {
+            return false;
+        }
+        int old = start;
+        base = distance;
+        start = s;
+        parent[s] = -1;
+        refresh(old);
+        return true;
+    }
+
+    // Recomputes rhs of a cell from its neighbours and requeues it if inconsistent.
+    private void refresh(int u) {
+        if (u != start) {
+            bestPredecessor(u);
+        }
+        updateVertex(u);
+    }
+
+    private void computeShortestPath() {
+        while (open.peekKey() < key(goal) || rhsOf(goal) > gOf(goal)) {
+            int u = open.peek();
+            long oldKey = open.peekKey();
+            long newKey = key(u);
+            if (oldKey < newKey) {
+                open.upsert(u, newKey);
+                continue;
+            }
+            expanded++;
+            int ux = u % width;
+            int uy = u / width;
+            if (gOf(u) > rhsOf(u)) {
+                setG(u, rhsOf(u));
+                open.remove(u);
+                int through = gOf(u) + 1;
+                for (int d = 0; d < 4; d++) {
+                    int nx = ux + DX[d];
+                    int ny = uy + DY[d];
+                    if (!grid.isWalkable(nx, ny)) {
+                        continue;
+                    }
+                    int s = ny * width + nx;
+                    if (s != start && through < rhsOf(s)) {
+                        setRhs(s, through);
+                        parent[s] = u;
+                    }
+                    updateVertex(s);
+                }
+            } else {
+                setG(u, INF);
+                for (int d = 0; d < 4; d++) {
+                    int nx = ux + DX[d];
+                    int ny = uy + DY[d];
+                    if (!grid.isWalkable(nx, ny)) {
+                        continue;
+                    }
+                    int s = ny * width + nx;
+                    if (s != start && stamp[s] == generation && parent[s] == u) {
+                        bestPredecessor(s);
+                    }
+                    updateVertex(s);
+                }
+                refresh(u);
+            }
+        }
+    }
+
+    private void updateVertex(int u) {
+        if (gOf(u) != rhsOf(u)) {
+            open.upsert(u, key(u));
+        } else {
+            open.remove(u);
+        }
+    }
+
+    // Sets rhs to the min over walkable neighbours of 1 + g, or INF for a blocked
+    // cell, and remembers the neighbour it came from.
+    private void bestPredecessor(int u) {
+        int ux = u % width;
+        int uy = u / width;
+        int best = INF;
+        int from = -1;
+        if (grid.isWalkable(ux, uy)) {
+            for (int d = 0; d < 4; d++) {
+                int nx = ux + DX[d];
+                int ny = uy + DY[d];
+                if (grid.isWalkable(nx, ny)) {
+                    int v = gOf(ny * width + nx);
+                    if (v < INF && v + 1 < best) {
+                        best = v + 1;
+                        from = ny * width + nx;
+                    }
+                }
+            }
+        }
+        setRhs(u, best);
+        parent[u] = from;
+    }
+
+    private int gOf(int u) {
+        return stamp[u] == generation ? g[u] : INF;
+    }
+
+    private int rhsOf(int u) {
+        return stamp[u] == generation ? rhs[u] : INF;
+    }
+
+    private void setG(int u, int value) {
+        touch(u);
+        g[u] = value;
+    }
+
+    private void setRhs(int u, int value) {
+        touch(u);
+        rhs[u] = value;
+    }
+
+    private void touch(int u) {
+        if (stamp[u] != generation) {
+            stamp[u] = generation;
+            g[u] = INF;
+            rhs[u] = INF;
+            parent[u] = -1;
+        }
+    }
+
+    private void nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private long key(int u) {
+        int m = Math.min(gOf(u), rhsOf(u));
+        return ((long) (m + manhattan(u, goal) + km) << 32) | m;
+    }
+
+    private int manhattan(int a, int b) {
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+    }
+
+    // Walks the parents back from the goal, writing the path from its far end.
+    private int writePath(int[] out) {
+        int length = rhsOf(goal) - base;
+        int cur = goal;
+        for (int i = length - 1; i >= 0; i--) {
+            if (cur < 0 || stamp[cur] != generation) {
+                return NO_PATH;
+            }
+            if (i < out.length) {
+                out[i] = cur;
+            }
+            cur = parent[cur];
+        }
+        return cur == start ? length : NO_PATH;
+    }
+}
@@ -0,0 +1,137 @@
+package Engine.Pathfinding;
+
+import Engine.Utils.Vector2i;
+
+import java.util.Arrays;
+
+/**
+ * A distance map toward one target cell, shared by every agent chasing that target.
+ * <p>
+ * Setting the target runs one breadth-first search over the grid, but only when the
+ * target has moved to another cell (or the grid was {@link #invalidate() invalidated}).
+ * After that, an agent anywhere on the map finds its next step by looking at the
+ * distances of its four neighbours, so the cost of pursuit no longer grows with the
+ * number of pursuers. The search reuses its arrays and does not allocate.
+ */
+public class FlowField {
+    /** Distance of cells that cannot reach the target. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+    private final int[] distance;
+    private final int[] queue;
+
+    private int targetX = -1;
+    private int targetY = -1;
+    private boolean valid = false;
+    private long rebuilds = 0;
+
+    /**
+     * @param grid The map to search. Call {@link #invalidate()} after changing it.
+     */
+    public FlowField(Grid grid) {
+        this.grid = grid;
+        this.width = grid.width();
+        this.height = grid.height();
+        this.distance = new int[width * height];
+        this.queue = new int[width * height];
+        Arrays.fill(distance, UNREACHABLE);
+    }
+
+    /**
+     * Points the field at a target, rebuilding it if the target changed cell.
+     *
+     * @param target The cell to flow toward.
+     */
+    public void setTarget(Vector2i target) {
+        if (valid && target.x() == targetX && target.y() == targetY) {
+            return;
+        }
+        targetX = target.x();
+        targetY = target.y();
+        rebuild();
+    }
+
+    /**
+     * Forces a rebuild on the next {@link #setTarget(Vector2i)}, e.g. after the map changed.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return The number of steps from the cell to the target, or {@link #UNREACHABLE}.
+     */
+    public int distance(int x, int y) {
+        if (!valid || x < 0 || y < 0 || x >= width || y >= height) {
+            return UNREACHABLE;
+        }
+        return distance[y * width + x];
+    }
+
+    /**
+     * Returns the neighbour of a cell that is closest to the target.
+     *
+     * @param from The agent's cell.
+     * @return The next cell to step to, or null if the agent is on the target or cannot reach it.
+     */
+    public Vector2i nextStep(Vector2i from) {
+        int best = distance(from.x(), from.y());
+        if (best == 0 || best == UNREACHABLE) {
+            return null;
+        }
+        int bestDir = -1;
+        for (int d = 0; d < 4; d++) {
+            int dist = distance(from.x() + DX[d], from.y() + DY[d]);
+            if (dist < best) {
+                best = dist;
+                bestDir = d;
+            }
+        }
+        return bestDir < 0 ? null : new Vector2i(from.x() + DX[bestDir], from.y() + DY[bestDir]);
+    }
+
+    /**
+     * @return How many times the field has been rebuilt.
+     */
+    public long getRebuildCount() {
+        return rebuilds;
+    }
+
+    private void rebuild() {
+        Arrays.fill(distance, UNREACHABLE);
+        valid = true;
+        rebuilds++;
+        if (!grid.isWalkable(targetX, targetY)) {
+            return;
+        }
+        int head = 0;
+        int tail = 0;
+        int start = targetY * width + targetX;
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cur = queue[head++];
+            int cx = cur % width;
+            int cy = cur / width;
+            int next = distance[cur] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (!grid.isWalkable(nx, ny)) {
+                    continue;
+                }
+                int n = ny * width + nx;
+                if (distance[n] == UNREACHABLE) {
+                    distance[n] = next;
+                    queue[tail++] = n;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package Engine.Pathfinding;
+
+/**
+ * A rectangular map of walkable and blocked cells, as seen by the pathfinders.
+ * Cells are addressed by {@code (x, y)} from the bottom-left, like world tiles,
+ * or by the packed index {@code y * width + x}.
+ */
+public interface Grid {
+
+    /**
+     * @return The number of columns.
+     */
+    int width();
+
+    /**
+     * @return The number of rows.
+     */
+    int height();
+
+    /**
+     * @return True if an agent may stand on the cell. Cells outside the grid are not walkable.
+     */
+    boolean isWalkable(int x, int y);
+
+    /**
+     * Returns the cost of stepping onto a walkable cell, at least 1. The result for
+     * blocked cells is unspecified.
+     */
+    default int cost(int x, int y) {
+        return 1;
+    }
+
+    /**
+     * @return True if the cell lies inside the grid.
+     */
+    default boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width() && y < height();
+    }
+}
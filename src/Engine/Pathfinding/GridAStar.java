@@ -0,0 +1,127 @@
+package Engine.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A* over a {@link Grid} with a Manhattan heuristic, built for searching many times
+ * a second without allocating.
+ * <p>
+ * The g-scores and parents live in flat {@code int[]} arrays indexed by cell. Instead
+ * of clearing them before each search, every search bumps a generation counter and
+ * a cell's entries only count if its stamp matches the current generation. The open
+ * set is an {@link IndexedMinHeap} ordered by f, with ties going to the cell closer
+ * to the goal.
+ * <p>
+ * Entering a cell costs {@link Grid#cost(int, int)}, so on weighted grids the
+ * cheapest path is found; the heuristic stays admissible since no cost is below 1.
+ */
+public class GridAStar implements GridPathfinder {
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final Grid grid;
+    private final int width;
+    private final int[] g;
+    private final int[] parent;
+    private final int[] seen;   // generation in which g/parent were set
+    private final int[] closed; // generation in which the cell was expanded
+    private final IndexedMinHeap open;
+    private int generation = 0;
+    private int expanded = 0;
+
+    public GridAStar(Grid grid) {
+        this.grid = grid;
+        this.width = grid.width();
+        int cells = grid.width() * grid.height();
+        this.g = new int[cells];
+        this.parent = new int[cells];
+        this.seen = new int[cells];
+        this.closed = new int[cells];
+        this.open = new IndexedMinHeap(cells);
+    }
+
+    @Override
+    public int findPath(int startX, int startY, int goalX, int goalY, int[] out) {
+        expanded = 0;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        if (startX == goalX && startY == goalY) {
+            return 0;
+        }
+        nextGeneration();
+        open.clear();
+
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        g[start] = 0;
+        parent[start] = -1;
+        seen[start] = generation;
+        open.upsert(start, priority(0, startX, startY, goalX, goalY));
+
+        while (!open.isEmpty()) {
+            int cur = open.pop();
+            if (cur == goal) {
+                return writePath(start, goal, out);
+            }
+            closed[cur] = generation;
+            expanded++;
+            int cx = cur % width;
+            int cy = cur / width;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (!grid.isWalkable(nx, ny)) {
+                    continue;
+                }
+                int n = ny * width + nx;
+                int next = g[cur] + grid.cost(nx, ny);
+                if (closed[n] == generation || (seen[n] == generation && g[n] <= next)) {
+                    continue;
+                }
+                g[n] = next;
+                parent[n] = cur;
+                seen[n] = generation;
+                open.upsert(n, priority(next, nx, ny, goalX, goalY));
+            }
+        }
+        return NO_PATH;
+    }
+
+    @Override
+    public Grid grid() {
+        return grid;
+    }
+
+    @Override
+    public int getLastExpandedCount() {
+        return expanded;
+    }
+
+    private static long priority(int g, int x, int y, int goalX, int goalY) {
+        int h = Math.abs(x - goalX) + Math.abs(y - goalY);
+        return ((long) (g + h) << 32) | h;
+    }
+
+    private void nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    private int writePath(int start, int goal, int[] out) {
+        int length = 0; // steps, not cost
+        for (int c = goal; c != start; c = parent[c]) {
+            length++;
+        }
+        int i = length - 1;
+        for (int c = goal; c != start; c = parent[c], i--) {
+            if (i < out.length) {
+                out[i] = c;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,34 @@
+package Engine.Pathfinding;
+
+/**
+ * A shortest-path search over a {@link Grid} with 4-connected moves. Unless an
+ * implementation says otherwise, every step costs 1 and {@link Grid#cost(int, int)}
+ * is ignored.
+ * <p>
+ * Paths are written into a buffer supplied by the caller as packed cell indices
+ * ({@code y * width + x}), from the first step after the start up to the goal, so
+ * that a search does not have to allocate. Implementations keep per-search scratch
+ * state and are not thread-safe; use one instance per thread.
+ */
+public interface GridPathfinder {
+    /** Returned by {@link #findPath} when the goal cannot be reached. */
+    int NO_PATH = -1;
+
+    /**
+     * Searches for a shortest path.
+     *
+     * @param out Receives the first {@code min(length, out.length)} cells of the path.
+     * @return The number of steps in the full path (0 if start equals goal), or {@link #NO_PATH}.
+     */
+    int findPath(int startX, int startY, int goalX, int goalY, int[] out);
+
+    /**
+     * @return The grid this pathfinder searches.
+     */
+    Grid grid();
+
+    /**
+     * @return The number of cells expanded by the last search, for profiling.
+     */
+    int getLastExpandedCount();
+}
@@ -0,0 +1,71 @@
+package Engine.Pathfinding;
+
+/**
+ * An immutable copy of a {@link Grid}'s walkability, one bit per cell, and of its
+ * movement costs, that can be searched from other threads while the live map keeps
+ * changing. Costs take a byte per cell and are only stored if some walkable cell
+ * costs more than 1.
+ */
+public final class GridSnapshot implements Grid {
+    private final int width;
+    private final int height;
+    private final long[] bits;
+    private final byte[] costs; // unsigned; null when every cell costs 1
+
+    private GridSnapshot(int width, int height, long[] bits, byte[] costs) {
+        this.width = width;
+        this.height = height;
+        this.bits = bits;
+        this.costs = costs;
+    }
+
+    /**
+     * Copies the current state of a grid.
+     */
+    public static GridSnapshot of(Grid grid) {
+        int width = grid.width();
+        int height = grid.height();
+        if (grid instanceof WalkabilityMask mask) {
+            return new GridSnapshot(width, height, mask.copyBits(), mask.copyCosts());
+        }
+        long[] bits = new long[(width * height + 63) >>> 6];
+        byte[] costs = new byte[width * height];
+        boolean weighted = false;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (grid.isWalkable(x, y)) {
+                    int i = y * width + x;
+                    bits[i >>> 6] |= 1L << i;
+                    int cost = Math.max(1, Math.min(WalkabilityMask.MAX_COST, grid.cost(x, y)));
+                    costs[i] = (byte) cost;
+                    weighted |= cost > 1;
+                }
+            }
+        }
+        return new GridSnapshot(width, height, bits, weighted ? costs : null);
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public int cost(int x, int y) {
+        return (costs == null || !inBounds(x, y)) ? 1 : costs[y * width + x] & 0xFF;
+    }
+}
@@ -0,0 +1,510 @@
+package Engine.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinding (HPA*) for maps too large to search cell by cell several
+ * times a second.
+ * <p>
+ * The grid is cut into square clusters. Wherever two neighbouring clusters share a
+ * run of walkable border cells there is an entrance, and each side of an entrance
+ * becomes a node of a small abstract graph. Nodes across an entrance are one step
+ * apart; nodes inside a cluster are linked by their shortest distance within the
+ * cluster, precomputed by a breadth-first search over the cluster alone.
+ * <p>
+ * A query links the start and goal into the graph, searches the graph with A*, and
+ * turns only the first leg of the result back into grid cells. The agent follows
+ * that leg and asks again when it runs out, so the cell-level cost of a query is
+ * bounded by the cluster size no matter how far away the goal is. Routes are
+ * typically within a few percent of the shortest.
+ * <p>
+ * After a cell of the grid changes, call {@link #onCellChanged(int, int)}: only the
+ * entrances and distances of the clusters around that cell are rebuilt. A pathfinder
+ * made with {@link #following(WalkabilityMask, int)} does this by itself whenever a
+ * {@code TileMap.setTile} changes the map's mask. Not thread-safe.
+ */
+public class HierarchicalPathfinder {
+    /** Returned by {@link #findPath} when the goal cannot be reached. */
+    public static final int NO_PATH = GridPathfinder.NO_PATH;
+    /** Entrances at least this wide get a node at each end instead of one in the middle. */
+    private static final int WIDE_ENTRANCE = 6;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+    private final int size;
+    private final int clustersX;
+    private final int clustersY;
+
+    // Abstract nodes by id; the ids of removed nodes are reused.
+    private int[] nodeCell = new int[0];
+    private int[] nodeCluster = new int[0];
+    private int[] nodePartner = new int[0]; // the node across the entrance
+    private int[] nodeLocal = new int[0];   // index in the cluster's node list
+    private int nextId = 0;
+    private int[] freeIds = new int[16];
+    private int freeCount = 0;
+
+    private final int[][] clusterNodes;
+    private final int[][] clusterCosts; // n * n distances inside the cluster, -1 if unreachable
+    // Two borders per cluster: [2k] shared with the cluster to the east, [2k + 1] with the one to the north.
+    // Each holds (inside, outside) node id pairs.
+    private final int[][] borderNodes;
+
+    private final ClusterSearch startSearch;
+    private final ClusterSearch goalSearch;
+    private final ClusterSearch legSearch;
+
+    private int[] g = new int[0];
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] closed = new int[0];
+    private IndexedMinHeap open = new IndexedMinHeap(0);
+    private int[] chain = new int[64];
+    private int generation = 0;
+    private int expanded = 0;
+    private int lastCost = NO_PATH;
+
+    /**
+     * Builds the abstract graph for the whole grid.
+     *
+     * @param grid        The map to search.
+     * @param clusterSize The side of a cluster in cells, e.g. 16.
+     */
+    public HierarchicalPathfinder(Grid grid, int clusterSize) {
+        this.grid = grid;
+        this.width = grid.width();
+        this.height = grid.height();
+        this.size = clusterSize;
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        this.clustersY = (height + clusterSize - 1) / clusterSize;
+        int clusters = clustersX * clustersY;
+        this.clusterNodes = new int[clusters][];
+        this.clusterCosts = new int[clusters][];
+        this.borderNodes = new int[clusters * 2][];
+        this.startSearch = new ClusterSearch();
+        this.goalSearch = new ClusterSearch();
+        this.legSearch = new ClusterSearch();
+
+        for (int k = 0; k < clusters; k++) {
+            borderNodes[2 * k] = new int[0];
+            borderNodes[2 * k + 1] = new int[0];
+        }
+        for (int k = 0; k < clusters; k++) {
+            buildBorder(k, true);
+            buildBorder(k, false);
+        }
+        for (int k = 0; k < clusters; k++) {
+            buildCluster(k);
+        }
+    }
+
+    /**
+     * Builds the abstract graph for a map's walkability mask and keeps it up to date:
+     * every cell change reported by the mask is passed to {@link #onCellChanged(int, int)}.
+     *
+     * @param mask        The map to search, e.g. {@code TileMap.getWalkability()}.
+     * @param clusterSize The side of a cluster in cells, e.g. 16.
+     */
+    public static HierarchicalPathfinder following(WalkabilityMask mask, int clusterSize) {
+        HierarchicalPathfinder finder = new HierarchicalPathfinder(mask, clusterSize);
+        mask.addListener((x, y, walkable, cost) -> finder.onCellChanged(x, y));
+        return finder;
+    }
+
+    /**
+     * Finds a path and writes its first leg: the cells up to the first abstract node
+     * on the way (or up to the goal if it is close).
+     *
+     * @param out Receives the first {@code min(length, out.length)} cells of the leg,
+     *            as packed indices {@code y * width + x}.
+     * @return The number of steps in the leg (0 if start equals goal), or {@link #NO_PATH}.
+     */
+    public int findPath(int startX, int startY, int goalX, int goalY, int[] out) {
+        expanded = 0;
+        lastCost = NO_PATH;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        if (startX == goalX && startY == goalY) {
+            lastCost = 0;
+            return 0;
+        }
+        int startCell = startY * width + startX;
+        int goalCell = goalY * width + goalX;
+        int startCluster = clusterOf(startX, startY);
+        int goalCluster = clusterOf(goalX, goalY);
+        startSearch.run(startCluster, startCell);
+        goalSearch.run(goalCluster, goalCell);
+
+        // The start and goal join the graph as two extra nodes past the real ones.
+        int start = nextId;
+        int goal = nextId + 1;
+        ensureSearchCapacity(nextId + 2);
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        open.clear();
+        g[start] = 0;
+        parent[start] = -1;
+        seen[start] = generation;
+        open.upsert(start, priority(0, startCell, goalX, goalY));
+
+        boolean found = false;
+        while (!open.isEmpty()) {
+            int cur = open.pop();
+            if (cur == goal) {
+                found = true;
+                break;
+            }
+            closed[cur] = generation;
+            expanded++;
+            if (cur == start) {
+                if (startCluster == goalCluster) {
+                    relax(cur, goal, startSearch.distance(goalCell), goalCell, goalX, goalY);
+                }
+                for (int n : clusterNodes[startCluster]) {
+                    relax(cur, n, startSearch.distance(nodeCell[n]), nodeCell[n], goalX, goalY);
+                }
+                continue;
+            }
+            int partner = nodePartner[cur];
+            if (partner >= 0) {
+                relax(cur, partner, 1, nodeCell[partner], goalX, goalY);
+            }
+            int k = nodeCluster[cur];
+            int[] mates = clusterNodes[k];
+            int[] costs = clusterCosts[k];
+            int row = nodeLocal[cur] * mates.length;
+            for (int j = 0; j < mates.length; j++) {
+                if (mates[j] != cur) {
+                    relax(cur, mates[j], costs[row + j], nodeCell[mates[j]], goalX, goalY);
+                }
+            }
+            if (k == goalCluster) {
+                relax(cur, goal, goalSearch.distance(nodeCell[cur]), goalCell, goalX, goalY);
+            }
+        }
+        if (!found) {
+            return NO_PATH;
+        }
+        lastCost = g[goal];
+
+        // Collect the abstract route, then refine legs until at least one step is known.
+        int hops = 0;
+        for (int n = goal; n != start; n = parent[n]) {
+            if (hops == chain.length) {
+                chain = Arrays.copyOf(chain, hops * 2);
+            }
+            chain[hops++] = n;
+        }
+        int written = 0;
+        int prev = start;
+        for (int i = hops - 1; i >= 0 && written == 0; i--) {
+            int next = chain[i];
+            int target = (next == goal) ? goalCell : nodeCell[next];
+            if (prev == start) {
+                written = startSearch.writePath(target, out, 0);
+            } else if (next != goal && nodePartner[prev] == next) {
+                if (out.length > 0) {
+                    out[0] = target;
+                }
+                written = 1;
+            } else {
+                legSearch.run(nodeCluster[prev], nodeCell[prev]);
+                written = legSearch.writePath(target, out, 0);
+            }
+            prev = next;
+        }
+        return written;
+    }
+
+    /**
+     * Updates the graph after the walkability of a cell changed in the grid.
+     */
+    public void onCellChanged(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int cx = x / size;
+        int cy = y / size;
+        int k = cy * clustersX + cx;
+        int lx = x - cx * size;
+        int ly = y - cy * size;
+        // Entrances only change if the cell lies on a cluster edge.
+        if (lx == size - 1 && cx + 1 < clustersX) {
+            buildBorder(k, true);
+            buildCluster(k + 1);
+        }
+        if (lx == 0 && cx > 0) {
+            buildBorder(k - 1, true);
+            buildCluster(k - 1);
+        }
+        if (ly == size - 1 && cy + 1 < clustersY) {
+            buildBorder(k, false);
+            buildCluster(k + clustersX);
+        }
+        if (ly == 0 && cy > 0) {
+            buildBorder(k - clustersX, false);
+            buildCluster(k - clustersX);
+        }
+        buildCluster(k);
+    }
+
+    /**
+     * @return The grid this pathfinder searches.
+     */
+    public Grid grid() {
+        return grid;
+    }
+
+    /**
+     * @return The length of the whole abstract route found by the last query, or {@link #NO_PATH}.
+     */
+    public int getLastPathCost() {
+        return lastCost;
+    }
+
+    /**
+     * @return The number of abstract nodes expanded by the last query, for profiling.
+     */
+    public int getLastExpandedCount() {
+        return expanded;
+    }
+
+    /**
+     * @return The number of nodes in the abstract graph.
+     */
+    public int getNodeCount() {
+        return nextId - freeCount;
+    }
+
+    private int clusterOf(int x, int y) {
+        return (y / size) * clustersX + x / size;
+    }
+
+    private void relax(int from, int to, int cost, int toCell, int goalX, int goalY) {
+        if (cost < 0 || closed[to] == generation) {
+            return;
+        }
+        int next = g[from] + cost;
+        if (seen[to] == generation && g[to] <= next) {
+            return;
+        }
+        g[to] = next;
+        parent[to] = from;
+        seen[to] = generation;
+        open.upsert(to, priority(next, toCell, goalX, goalY));
+    }
+
+    private long priority(int g, int cell, int goalX, int goalY) {
+        int h = Math.abs(cell % width - goalX) + Math.abs(cell / width - goalY);
+        return ((long) (g + h) << 32) | h;
+    }
+
+    // Finds the entrances on the east (or north) edge of cluster k and gives each side a node.
+    private void buildBorder(int k, boolean east) {
+        int cx = k % clustersX;
+        int cy = k / clustersX;
+        int b = 2 * k + (east ? 0 : 1);
+        for (int id : borderNodes[b]) {
+            freeNode(id);
+        }
+        if (east ? cx + 1 >= clustersX : cy + 1 >= clustersY) {
+            borderNodes[b] = new int[0];
+            return;
+        }
+        int neighbour = east ? k + 1 : k + clustersX;
+        int fixed = east ? (cx + 1) * size - 1 : (cy + 1) * size - 1;
+        int from = east ? cy * size : cx * size;
+        int to = Math.min(east ? height : width, from + size);
+
+        int[] pairs = new int[4 * size];
+        int count = 0;
+        int runStart = -1;
+        for (int i = from; i <= to; i++) {
+            boolean passable = i < to && (east
+                    ? grid.isWalkable(fixed, i) && grid.isWalkable(fixed + 1, i)
+                    : grid.isWalkable(i, fixed) && grid.isWalkable(i, fixed + 1));
+            if (passable && runStart < 0) {
+                runStart = i;
+            } else if (!passable && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                    count = addTransition(pairs, count, east, fixed, runStart, k, neighbour);
+                    count = addTransition(pairs, count, east, fixed, runEnd, k, neighbour);
+                } else {
+                    count = addTransition(pairs, count, east, fixed, (runStart + runEnd) / 2, k, neighbour);
+                }
+                runStart = -1;
+            }
+        }
+        borderNodes[b] = Arrays.copyOf(pairs, count);
+    }
+
+    private int addTransition(int[] pairs, int count, boolean east, int fixed, int along, int inside, int outside) {
+        int insideCell = east ? along * width + fixed : fixed * width + along;
+        int outsideCell = east ? insideCell + 1 : insideCell + width;
+        int a = allocateNode(insideCell, inside);
+        int b = allocateNode(outsideCell, outside);
+        nodePartner[a] = b;
+        nodePartner[b] = a;
+        pairs[count++] = a;
+        pairs[count++] = b;
+        return count;
+    }
+
+    // Gathers the nodes on the four edges of cluster k and measures the distances between them.
+    private void buildCluster(int k) {
+        int cx = k % clustersX;
+        int cy = k / clustersX;
+        int[] east = borderNodes[2 * k];
+        int[] north = borderNodes[2 * k + 1];
+        int[] west = cx > 0 ? borderNodes[2 * (k - 1)] : new int[0];
+        int[] south = cy > 0 ? borderNodes[2 * (k - clustersX) + 1] : new int[0];
+        int n = (east.length + north.length + west.length + south.length) / 2;
+
+        int[] nodes = new int[n];
+        int i = 0;
+        for (int j = 0; j < east.length; j += 2) nodes[i++] = east[j];
+        for (int j = 0; j < north.length; j += 2) nodes[i++] = north[j];
+        for (int j = 1; j < west.length; j += 2) nodes[i++] = west[j];
+        for (int j = 1; j < south.length; j += 2) nodes[i++] = south[j];
+        for (int j = 0; j < n; j++) {
+            nodeLocal[nodes[j]] = j;
+        }
+
+        int[] costs = new int[n * n];
+        for (int a = 0; a < n; a++) {
+            legSearch.run(k, nodeCell[nodes[a]]);
+            for (int b = 0; b < n; b++) {
+                costs[a * n + b] = legSearch.distance(nodeCell[nodes[b]]);
+            }
+        }
+        clusterNodes[k] = nodes;
+        clusterCosts[k] = costs;
+    }
+
+    private int allocateNode(int cell, int cluster) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id >= nodeCell.length) {
+                int capacity = Math.max(64, nodeCell.length * 2);
+                nodeCell = Arrays.copyOf(nodeCell, capacity);
+                nodeCluster = Arrays.copyOf(nodeCluster, capacity);
+                nodePartner = Arrays.copyOf(nodePartner, capacity);
+                nodeLocal = Arrays.copyOf(nodeLocal, capacity);
+            }
+        }
+        nodeCell[id] = cell;
+        nodeCluster[id] = cluster;
+        nodePartner[id] = -1;
+        return id;
+    }
+
+    private void freeNode(int id) {
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void ensureSearchCapacity(int nodes) {
+        if (g.length >= nodes) {
+            return;
+        }
+        int capacity = Math.max(nodes, g.length * 2);
+        g = new int[capacity];
+        parent = new int[capacity];
+        seen = new int[capacity];
+        closed = new int[capacity];
+        open = new IndexedMinHeap(capacity);
+        generation = 0;
+    }
+
+    /**
+     * A breadth-first search confined to one cluster, with its own reusable arrays.
+     */
+    private final class ClusterSearch {
+        private final int[] dist = new int[size * size];
+        private final int[] from = new int[size * size];
+        private final int[] queue = new int[size * size];
+        private final int[] stamp = new int[size * size];
+        private int gen = 0;
+        private int x0, y0, w, h;
+
+        void run(int cluster, int origin) {
+            x0 = (cluster % clustersX) * size;
+            y0 = (cluster / clustersX) * size;
+            w = Math.min(size, width - x0);
+            h = Math.min(size, height - y0);
+            if (++gen == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                gen = 1;
+            }
+            int o = local(origin);
+            dist[o] = 0;
+            from[o] = -1;
+            stamp[o] = gen;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = o;
+            while (head < tail) {
+                int cur = queue[head++];
+                int lx = cur % size;
+                int ly = cur / size;
+                for (int d = 0; d < 4; d++) {
+                    int nx = lx + DX[d];
+                    int ny = ly + DY[d];
+                    if (nx < 0 || ny < 0 || nx >= w || ny >= h) {
+                        continue;
+                    }
+                    int n = ny * size + nx;
+                    if (stamp[n] == gen || !grid.isWalkable(x0 + nx, y0 + ny)) {
+                        continue;
+                    }
+                    stamp[n] = gen;
+                    dist[n] = dist[cur] + 1;
+                    from[n] = cur;
+                    queue[tail++] = n;
+                }
+            }
+        }
+
+        int distance(int cell) {
+            int x = cell % width - x0;
+            int y = cell / width - y0;
+            if (x < 0 || y < 0 || x >= w || y >= h) {
+                return -1;
+            }
+            int l = y * size + x;
+            return stamp[l] == gen ? dist[l] : -1;
+        }
+
+        // Writes the cells after the origin up to and including the target; returns the step count.
+        int writePath(int target, int[] out, int at) {
+            int d = distance(target);
+            if (d <= 0) {
+                return Math.max(d, 0);
+            }
+            int i = at + d - 1;
+            for (int l = local(target); from[l] >= 0; l = from[l], i--) {
+                if (i < out.length) {
+                    out[i] = (y0 + l / size) * width + x0 + l % size;
+                }
+            }
+            return d;
+        }
+
+        private int local(int cell) {
+            return (cell / width - y0) * size + (cell % width - x0);
+        }
+    }
+}
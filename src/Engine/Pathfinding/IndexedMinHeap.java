@@ -0,0 +1,165 @@
+package Engine.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of grid cell indices with {@code long} priorities, that knows
+ * where each cell sits so that priorities can be changed or cells removed in
+ * O(log n). All storage is allocated up front; nothing is allocated afterwards.
+ * <p>
+ * Composite priorities are packed into the long, e.g. {@code (long) f << 32 | h}
+ * to order by f and break ties by h.
+ */
+public final class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] pos;   // heap slot per cell, -1 if absent
+    private final long[] keys; // priority per cell
+    private int size = 0;
+
+    /**
+     * @param capacity The number of cells; indices must be below it.
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int cell) {
+        return pos[cell] >= 0;
+    }
+
+    /**
+     * @return The priority of a cell in the heap.
+     */
+    public long key(int cell) {
+        return keys[cell];
+    }
+
+    /**
+     * Adds a cell, or moves it to a new priority if it is already in the heap.
+     */
+    public void upsert(int cell, long key) {
+        int i = pos[cell];
+        if (i < 0) {
+            keys[cell] = key;
+            i = size++;
+            heap[i] = cell;
+            pos[cell] = i;
+            siftUp(i);
+        } else {
+            long old = keys[cell];
+            keys[cell] = key;
+            if (key < old) {
+                siftUp(i);
+            } else {
+                siftDown(i);
+            }
+        }
+    }
+
+    /**
+     * @return The cell with the lowest priority; only valid if not empty.
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * @return The lowest priority in the heap, or {@link Long#MAX_VALUE} if empty.
+     */
+    public long peekKey() {
+        return size == 0 ? Long.MAX_VALUE : keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the cell with the lowest priority; only valid if not empty.
+     */
+    public int pop() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Removes a cell if it is in the heap.
+     */
+    public void remove(int cell) {
+        int i = pos[cell];
+        if (i >= 0) {
+            removeAt(i);
+        }
+    }
+
+    /**
+     * Empties the heap in O(size).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int i) {
+        int cell = heap[i];
+        pos[cell] = -1;
+        int last = heap[--size];
+        if (i == size) {
+            return;
+        }
+        heap[i] = last;
+        pos[last] = i;
+        siftUp(i);
+        siftDown(pos[last]);
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        long key = keys[cell];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (keys[p] <= key) {
+                break;
+            }
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = cell;
+        pos[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        long key = keys[cell];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[c]) {
+                child = right;
+                c = heap[child];
+            }
+            if (key <= keys[c]) {
+                break;
+            }
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        pos[cell] = i;
+    }
+}
@@ -0,0 +1,206 @@
+package Engine.Pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Jump Point Search adapted to 4-connected movement. It finds the same shortest
+ * paths as {@link GridAStar} but puts far fewer cells on the open list on maps made
+ * of open rooms.
+ * <p>
+ * Among equally short paths it only considers canonical ones: they run vertically
+ * and branch off horizontally. A horizontal scan runs in a straight line and stops
+ * at the goal, or at a cell where an opening appears above or below that was walled
+ * off one step back (a forced neighbour). A vertical scan also stops where a forced
+ * neighbour appears to its side, or where a horizontal scan from the current cell
+ * would stop. Only the cells where scans stop (jump points) go on the open list;
+ * the straight runs between them are filled back in when the path is written out.
+ * <p>
+ * Scratch arrays are generation-stamped like those of {@link GridAStar}, so a search
+ * does not allocate.
+ */
+public class JumpPointSearch implements GridPathfinder {
+    private static final int START = 0;
+    private static final int HORIZONTAL = 1;
+    private static final int VERTICAL = 2;
+
+    private final Grid grid;
+    private final int width;
+    private final int[] g;
+    private final int[] parent;
+    private final byte[] arrival; // how the cell was reached: START, HORIZONTAL or VERTICAL, with sign bit 4
+    private final int[] seen;
+    private final int[] closed;
+    private final IndexedMinHeap open;
+    private int generation = 0;
+    private int expanded = 0;
+
+    private int goalX;
+    private int goalY;
+
+    public JumpPointSearch(Grid grid) {
+        this.grid = grid;
+        this.width = grid.width();
+        int cells = grid.width() * grid.height();
+        this.g = new int[cells];
+        this.parent = new int[cells];
+        this.arrival = new byte[cells];
+        this.seen = new int[cells];
+        this.closed = new int[cells];
+        this.open = new IndexedMinHeap(cells);
+    }
+
+    @Override
+    public int findPath(int startX, int startY, int goalX, int goalY, int[] out) {
+        expanded = 0;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        if (startX == goalX && startY == goalY) {
+            return 0;
+        }
+        this.goalX = goalX;
+        this.goalY = goalY;
+        nextGeneration();
+        open.clear();
+
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        g[start] = 0;
+        parent[start] = -1;
+        arrival[start] = START;
+        seen[start] = generation;
+        open.upsert(start, priority(0, startX, startY));
+
+        while (!open.isEmpty()) {
+            int cur = open.pop();
+            if (cur == goal) {
+                return writePath(start, goal, out);
+            }
+            closed[cur] = generation;
+            expanded++;
+            int x = cur % width;
+            int y = cur / width;
+            int how = arrival[cur] & 3;
+            int sign = (arrival[cur] & 4) != 0 ? -1 : 1;
+
+            if (how == START) {
+                scanHorizontal(cur, x, y, 1);
+                scanHorizontal(cur, x, y, -1);
+                scanVertical(cur, x, y, 1);
+                scanVertical(cur, x, y, -1);
+            } else if (how == HORIZONTAL) {
+                scanHorizontal(cur, x, y, sign);
+                // Forced neighbours: openings above or below that were walled off one step back.
+                if (forced(x, y + 1, x - sign, y + 1)) scanVertical(cur, x, y, 1);
+                if (forced(x, y - 1, x - sign, y - 1)) scanVertical(cur, x, y, -1);
+            } else {
+                scanVertical(cur, x, y, sign);
+                scanHorizontal(cur, x, y, 1);
+                scanHorizontal(cur, x, y, -1);
+            }
+        }
+        return NO_PATH;
+    }
+
+    @Override
+    public Grid grid() {
+        return grid;
+    }
+
+    @Override
+    public int getLastExpandedCount() {
+        return expanded;
+    }
+
+    private void scanHorizontal(int from, int x, int y, int dx) {
+        int jx = jumpHorizontal(x, y, dx);
+        if (jx != Integer.MIN_VALUE) {
+            push(from, jx, y, HORIZONTAL, dx, Math.abs(jx - x));
+        }
+    }
+
+    private void scanVertical(int from, int x, int y, int dy) {
+        int jy = jumpVertical(x, y, dy);
+        if (jy != Integer.MIN_VALUE) {
+            push(from, x, jy, VERTICAL, dy, Math.abs(jy - y));
+        }
+    }
+
+    // Returns the x of the next jump point to the side, or MIN_VALUE if the scan hits a wall.
+    private int jumpHorizontal(int x, int y, int dx) {
+        while (true) {
+            x += dx;
+            if (!grid.isWalkable(x, y)) {
+                return Integer.MIN_VALUE;
+            }
+            if ((x == goalX && y == goalY)
+                    || forced(x, y + 1, x - dx, y + 1)
+                    || forced(x, y - 1, x - dx, y - 1)) {
+                return x;
+            }
+        }
+    }
+
+    // Returns the y of the next jump point up or down, or MIN_VALUE if the scan hits a wall.
+    private int jumpVertical(int x, int y, int dy) {
+        while (true) {
+            y += dy;
+            if (!grid.isWalkable(x, y)) {
+                return Integer.MIN_VALUE;
+            }
+            if ((x == goalX && y == goalY)
+                    || forced(x + 1, y, x + 1, y - dy)
+                    || forced(x - 1, y, x - 1, y - dy)
+                    || jumpHorizontal(x, y, 1) != Integer.MIN_VALUE
+                    || jumpHorizontal(x, y, -1) != Integer.MIN_VALUE) {
+                return y;
+            }
+        }
+    }
+
+    private boolean forced(int openX, int openY, int blockedX, int blockedY) {
+        return grid.isWalkable(openX, openY) && !grid.isWalkable(blockedX, blockedY);
+    }
+
+    private void push(int from, int x, int y, int how, int sign, int distance) {
+        int n = y * width + x;
+        int next = g[from] + distance;
+        if (closed[n] == generation || (seen[n] == generation && g[n] <= next)) {
+            return;
+        }
+        g[n] = next;
+        parent[n] = from;
+        arrival[n] = (byte) (how | (sign < 0 ? 4 : 0));
+        seen[n] = generation;
+        open.upsert(n, priority(next, x, y));
+    }
+
+    private long priority(int g, int x, int y) {
+        int h = Math.abs(x - goalX) + Math.abs(y - goalY);
+        return ((long) (g + h) << 32) | h;
+    }
+
+    private void nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    // Walks the jump points back from the goal, filling in the straight runs between them.
+    private int writePath(int start, int goal, int[] out) {
+        int length = g[goal];
+        int i = length - 1;
+        for (int c = goal; c != start; c = parent[c]) {
+            int p = parent[c];
+            int step = (c % width != p % width) ? Integer.signum(c % width - p % width) : Integer.signum(c / width - p / width) * width;
+            for (int cell = c; cell != p; cell -= step, i--) {
+                if (i < out.length) {
+                    out[i] = cell;
+                }
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,266 @@
+package Engine.Pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs path searches on a pool of worker threads so that a burst of replans never
+ * stalls the game thread.
+ * <p>
+ * Entities {@link #request} a path and get a {@link Ticket} back. Workers search an
+ * immutable {@link GridSnapshot} of the map, each with its own pathfinder, and the
+ * owner of the service calls {@link #update()} once per tick on the game thread to
+ * hand finished results over. A result therefore always arrives on a later tick than
+ * its request, and the entity keeps following its old path until then. Requests for
+ * the same start and goal made while one is already in flight share its ticket.
+ * <p>
+ * After the map changes, call {@link #invalidateSnapshot()}, or {@link #refreshSnapshot()}
+ * to copy the map right away; searches already running finish on the old snapshot.
+ * The worker threads start with the first request and exit when idle. With {@link #setDeterministic(boolean)} on,
+ * {@code update()} waits for the searches requested before it, so every result is
+ * delivered exactly one tick after its request regardless of thread timing.
+ */
+public class PathService implements AutoCloseable {
+
+    /**
+     * The pending or finished result of a path request.
+     */
+    public static final class Ticket {
+        private final int start;
+        private final int goal;
+        private int[] cells;
+        private int length = GridPathfinder.NO_PATH;
+        private boolean ready = false;
+
+        private Ticket(int start, int goal) {
+            this.start = start;
+            this.goal = goal;
+        }
+
+        /**
+         * @return True once the result has been delivered by {@link PathService#update()}.
+         */
+        public boolean isReady() {
+            return ready;
+        }
+
+        /**
+         * @return The number of steps in the path, or {@link GridPathfinder#NO_PATH} if there is
+         * none or the search failed. Only valid when ready.
+         */
+        public int length() {
+            return length;
+        }
+
+        /**
+         * @return The first cells of the path as packed indices, at most the service's
+         * {@code maxPathCells}. Only valid when ready.
+         */
+        public int[] cells() {
+            return cells;
+        }
+    }
+
+    // How long an idle worker thread lives.
+    private static final long IDLE_SECONDS = 5;
+
+    // Per worker thread: the snapshot its pathfinder was built for, and that pathfinder.
+    private record Worker(GridSnapshot snapshot, GridPathfinder finder, int[] buffer) {
+    }
+
+    private final Grid grid;
+    private final Function<Grid, GridPathfinder> finderFactory;
+    private final int maxPathCells;
+    private final int threads;
+    private ExecutorService pool; // started by the first request
+    private boolean closed = false;
+    private final ThreadLocal<Worker> workers = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<Ticket> finished = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Ticket> inFlight = new HashMap<>();
+    private final List<Future<?>> sinceUpdate = new ArrayList<>();
+
+    private GridSnapshot snapshot; // null until the first request, and after invalidateSnapshot()
+    private boolean deterministic = false;
+    private long requested = 0;
+    private long coalesced = 0;
+
+    /**
+     * @param grid          The live map; a snapshot of it is taken by the first request after
+     *                      construction or {@link #invalidateSnapshot()}.
+     * @param finderFactory Creates a pathfinder for a snapshot, e.g. {@code GridAStar::new}.
+     * @param threads       The number of worker threads.
+     * @param maxPathCells  How many cells of each path are kept in its ticket.
+     */
+    public PathService(Grid grid, Function<Grid, GridPathfinder> finderFactory, int threads, int maxPathCells) {
+        this.grid = grid;
+        this.finderFactory = finderFactory;
+        this.maxPathCells = maxPathCells;
+        this.threads = threads;
+    }
+
+    /**
+     * Asks for a path. Game thread only.
+     *
+     * @return A ticket that becomes ready on a later tick.
+     * @throws IllegalStateException If the service was closed.
+     */
+    public Ticket request(int startX, int startY, int goalX, int goalY) {
+        if (closed) {
+            throw new IllegalStateException("PathService is closed");
+        }
+        int width = grid.width();
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        long key = ((long) start << 32) | (goal & 0xFFFFFFFFL);
+        requested++;
+        Ticket ticket = inFlight.get(key);
+        if (ticket != null) {
+            coalesced++;
+            return ticket;
+        }
+        Ticket created = new Ticket(start, goal);
+        inFlight.put(key, created);
+        if (snapshot == null) {
+            snapshot = GridSnapshot.of(grid);
+        }
+        if (pool == null) {
+            pool = startPool();
+        }
+        GridSnapshot snap = snapshot;
+        sinceUpdate.add(pool.submit(() -> search(created, snap)));
+        return created;
+    }
+
+    /**
+     * Delivers the results finished since the last call. Call once per tick on the game thread.
+     */
+    public void update() {
+        if (deterministic) {
+            for (Future<?> f : sinceUpdate) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        sinceUpdate.clear();
+        Ticket t;
+        while ((t = finished.poll()) != null) {
+            t.ready = true;
+            inFlight.remove(((long) t.start << 32) | (t.goal & 0xFFFFFFFFL));
+        }
+    }
+
+    /**
+     * Takes a new snapshot of the live map for the searches requested from now on.
+     */
+    public void refreshSnapshot() {
+        snapshot = GridSnapshot.of(grid);
+    }
+
+    /**
+     * Marks the snapshot out of date after the live map changed. The next request
+     * takes a new one, so many changes in one tick cost a single copy.
+     */
+    public void invalidateSnapshot() {
+        snapshot = null;
+    }
+
+    /**
+     * @param deterministic If true, {@link #update()} waits for every search requested before it.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * @return The live map the snapshots are taken from.
+     */
+    public Grid grid() {
+        return grid;
+    }
+
+    /**
+     * @return The number of requests made, including coalesced ones.
+     */
+    public long getRequestCount() {
+        return requested;
+    }
+
+    /**
+     * @return The number of requests answered by a search that was already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * @return The number of distinct searches not yet delivered.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stops the worker threads. Undelivered tickets never become ready.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Idle workers exit after a few seconds, so a service that is never closed, e.g.
+    // one of a scene that failed to load, does not hold on to threads.
+    private ExecutorService startPool() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("path-worker-", 0).daemon().factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Always publishes the ticket, so that a failed search cannot leave it in flight and
+    // swallow every later request for the same start and goal.
+    private void search(Ticket ticket, GridSnapshot snap) {
+        int length = GridPathfinder.NO_PATH;
+        int[] cells = new int[0];
+        try {
+            Worker w = workers.get();
+            if (w == null || w.snapshot() != snap) {
+                w = new Worker(snap, finderFactory.apply(snap), new int[maxPathCells]);
+                workers.set(w);
+            }
+            int width = snap.width();
+            int found = w.finder().findPath(ticket.start % width, ticket.start / width,
+                    ticket.goal % width, ticket.goal / width, w.buffer());
+            if (found > 0) {
+                cells = Arrays.copyOf(w.buffer(), Math.min(found, maxPathCells));
+            }
+            length = found;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            workers.remove(); // its scratch state may be half-updated
+        } finally {
+            ticket.length = length;
+            ticket.cells = cells;
+            finished.add(ticket); // publishes the fields above to the game thread
+        }
+    }
+}
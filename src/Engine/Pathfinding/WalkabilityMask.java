@@ -0,0 +1,130 @@
+package Engine.Pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A mutable {@link Grid} that packs walkability into one bit per cell and keeps a
+ * movement cost per cell, so a walkability test is a shift and a mask rather than
+ * a hash lookup. A {@code TileMap} owns one and keeps it in step with its tiles;
+ * listeners hear about every cell whose walkability or cost actually changed, e.g.
+ * to invalidate a {@link FlowField} or mark a {@link PathService}'s snapshot stale.
+ */
+public class WalkabilityMask implements Grid {
+
+    /** The cost that marks a cell as blocked. */
+    public static final int BLOCKED = 0;
+    /** The highest cost a cell can hold; larger costs are clamped. */
+    public static final int MAX_COST = 255;
+
+    /**
+     * Notified after a cell's walkability or cost changed.
+     */
+    public interface Listener {
+        void onCellChanged(int x, int y, boolean walkable, int cost);
+    }
+
+    private final int width;
+    private final int height;
+    private final long[] bits;
+    private final byte[] costs; // unsigned
+    private final List<Listener> listeners = new ArrayList<>();
+    private int walkableCount = 0;
+
+    /**
+     * Creates a mask where every cell is blocked.
+     */
+    public WalkabilityMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(width * height + 63) >>> 6];
+        this.costs = new byte[width * height];
+    }
+
+    /**
+     * Sets the cost of a cell; {@link #BLOCKED} makes it unwalkable. Cells outside
+     * the mask are ignored.
+     *
+     * @return True if the cell changed, in which case the listeners were notified.
+     */
+    public boolean set(int x, int y, int cost) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        int c = Math.max(BLOCKED, Math.min(MAX_COST, cost));
+        int i = y * width + x;
+        int previous = costs[i] & 0xFF;
+        if (previous == c) {
+            return false;
+        }
+        costs[i] = (byte) c;
+        if (c == BLOCKED) {
+            bits[i >>> 6] &= ~(1L << i);
+            walkableCount--;
+        } else if (previous == BLOCKED) {
+            bits[i >>> 6] |= 1L << i;
+            walkableCount++;
+        }
+        for (Listener l : listeners) {
+            l.onCellChanged(x, y, c != BLOCKED, c);
+        }
+        return true;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @return The cost of stepping onto the cell, or {@link #BLOCKED} if it is not walkable.
+     */
+    @Override
+    public int cost(int x, int y) {
+        return inBounds(x, y) ? costs[y * width + x] & 0xFF : BLOCKED;
+    }
+
+    /**
+     * @return The number of walkable cells.
+     */
+    public int getWalkableCount() {
+        return walkableCount;
+    }
+
+    // Same layout as GridSnapshot, so snapshots are a plain array copy.
+    long[] copyBits() {
+        return bits.clone();
+    }
+
+    // Null if every walkable cell costs 1, so uniform maps keep their snapshots small.
+    byte[] copyCosts() {
+        for (byte c : costs) {
+            if ((c & 0xFF) > 1) {
+                return costs.clone();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering one {@code CollisionSystem.checkCollisions} pass.
+ */
+@Name("engine.CollisionCheck")
+@Label("Collision Check")
+@Category({"Engine", "Collision"})
+@Description("Broadphase and narrowphase collision detection for one tick")
+public final class CollisionCheckEvent extends jdk.jfr.Event {
+    @Label("Dynamic Colliders")
+    public int dynamicColliders;
+
+    @Label("Static Colliders")
+    public int staticColliders;
+
+    @Label("Candidates")
+    @Description("Pairs returned by the spatial hash (broadphase)")
+    public int candidates;
+
+    @Label("Pairs Tested")
+    @Description("Pairs run through the intersection test (narrowphase)")
+    public int pairsTested;
+
+    @Label("Contacts")
+    @Description("Collision and trigger events published")
+    public int contacts;
+}
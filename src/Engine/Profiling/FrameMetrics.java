@@ -0,0 +1,151 @@
+package Engine.Profiling;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-phase timing for one engine: a {@link LatencyHistogram} for every {@link Phase}.
+ * <p>
+ * The game loop brackets each phase with {@link System#nanoTime()} and calls
+ * {@link #record(Phase, long)}. Readers take a {@link #snapshot()} from any thread,
+ * or watch the numbers through JMX after {@link #registerMBean(String)}.
+ */
+public final class FrameMetrics implements FrameMetricsMXBean {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private ObjectName mbeanName;
+
+    public FrameMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the duration of one run of a phase.
+     *
+     * @param phase The phase.
+     * @param nanos The time it took, in nanoseconds.
+     */
+    public void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * @return The histogram for a phase.
+     */
+    public LatencyHistogram histogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * @return A summary of every phase.
+     */
+    public Map<Phase, LatencyHistogram.Snapshot> snapshot() {
+        Map<Phase, LatencyHistogram.Snapshot> result = new EnumMap<>(Phase.class);
+        for (Phase phase : PHASES) {
+            result.put(phase, histograms[phase.ordinal()].snapshot());
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server as
+     * {@code Engine:type=FrameMetrics,name=<name>}.
+     *
+     * @param name A name unique among the engines of this JVM.
+     */
+    public void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = ObjectName.getInstance("Engine:type=FrameMetrics,name=" + ObjectName.quote(name));
+            server.registerMBean(this, objectName);
+            this.mbeanName = objectName;
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes the registration made by {@link #registerMBean(String)}, if any.
+     */
+    public void unregisterMBean() {
+        if (mbeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        mbeanName = null;
+    }
+
+    // MXBean view: one array entry per phase, in getPhases() order.
+
+    @Override
+    public String[] getPhases() {
+        String[] names = new String[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            names[i] = PHASES[i].name();
+        }
+        return names;
+    }
+
+    @Override
+    public long[] getCounts() {
+        long[] out = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            out[i] = histograms[i].count();
+        }
+        return out;
+    }
+
+    @Override
+    public long[] getP50Nanos() {
+        long[] out = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            out[i] = histograms[i].percentile(0.50);
+        }
+        return out;
+    }
+
+    @Override
+    public long[] getP99Nanos() {
+        long[] out = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            out[i] = histograms[i].percentile(0.99);
+        }
+        return out;
+    }
+
+    @Override
+    public long[] getMaxNanos() {
+        long[] out = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            out[i] = histograms[i].max();
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : PHASES) {
+            sb.append(String.format("%-9s %s%n", phase, histograms[phase.ordinal()].snapshot()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package Engine.Profiling;
+
+/**
+ * The JMX view of {@link FrameMetrics}. Arrays hold one entry per phase, in the
+ * order of {@link #getPhases()}.
+ */
+public interface FrameMetricsMXBean {
+    String[] getPhases();
+
+    long[] getCounts();
+
+    long[] getP50Nanos();
+
+    long[] getP99Nanos();
+
+    long[] getMaxNanos();
+
+    /**
+     * Clears every histogram, e.g. to start a fresh measurement window.
+     */
+    void reset();
+}
@@ -0,0 +1,26 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering a game file read or write, such as a save or load.
+ */
+@Name("engine.Io")
+@Label("Game I/O")
+@Category({"Engine", "I/O"})
+@Description("Reading or writing a game file")
+public final class IoEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
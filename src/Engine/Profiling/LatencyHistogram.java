@@ -0,0 +1,160 @@
+package Engine.Profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative durations in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into 16
+ * sub-buckets, so a reported percentile is within about 6% of the true value.
+ * Recording is one atomic increment plus a compare-and-set on the maximum when it
+ * grows, and never allocates; any number of threads may record concurrently.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * A point-in-time summary of a histogram.
+     *
+     * @param count The number of recorded values.
+     * @param mean  The mean, in nanoseconds.
+     * @param p50   The median, in nanoseconds.
+     * @param p99   The 99th percentile, in nanoseconds.
+     * @param max   The largest recorded value, in nanoseconds.
+     */
+    public record Snapshot(long count, long mean, long p50, long p99, long max) {
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                    count, mean / 1e6, p50 / 1e6, p99 / 1e6, max / 1e6);
+        }
+    }
+
+    /**
+     * Records a duration. Negative values are recorded as zero.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of all recorded values, in nanoseconds.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return The largest recorded value, in nanoseconds.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below which the given fraction of recorded values fall.
+     *
+     * @param quantile A fraction in [0, 1], e.g. 0.99.
+     * @return The upper bound of the bucket holding that quantile, or 0 if empty.
+     */
+    public long percentile(double quantile) {
+        return percentile(copyBuckets(), quantile);
+    }
+
+    /**
+     * @return A consistent-enough summary for monitoring; concurrent writes may be
+     * partially included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = copyBuckets();
+        long n = count.sum();
+        long mean = n == 0 ? 0 : sum.sum() / n;
+        return new Snapshot(n, mean, percentile(copy, 0.50), percentile(copy, 0.99), max.get());
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private long[] copyBuckets() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return copy;
+    }
+
+    private long percentile(long[] copy, double quantile) {
+        long total = 0;
+        for (long c : copy) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long sub = bucket % SUB_COUNT;
+        return ((SUB_COUNT + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the procedural generation of a map.
+ */
+@Name("engine.MapGeneration")
+@Label("Map Generation")
+@Category({"Engine", "Scene"})
+@Description("Procedurally generating a map")
+public final class MapGenerationEvent extends jdk.jfr.Event {
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Seed")
+    public long seed;
+
+    @Label("Rooms")
+    public int rooms;
+
+    @Label("Floor Tiles")
+    public int floorTiles;
+}
@@ -0,0 +1,17 @@
+package Engine.Profiling;
+
+/**
+ * The timed phases of a frame, in the order the game loop runs them.
+ */
+public enum Phase {
+    /** Polling input devices. */
+    INPUT,
+    /** A whole {@code Scene.update} call, including {@link #COLLISION}. */
+    UPDATE,
+    /** Collision detection and dispatch inside an update. */
+    COLLISION,
+    /** Drawing the scene's layers into the frame buffer. */
+    RENDER,
+    /** Presenting the frame buffer on screen. */
+    PRESENT
+}
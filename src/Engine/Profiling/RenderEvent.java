@@ -0,0 +1,22 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering one rendered and presented frame.
+ */
+@Name("engine.Render")
+@Label("Render")
+@Category({"Engine", "Loop"})
+@Description("Rendering a scene into the frame buffer and presenting it")
+public final class RenderEvent extends jdk.jfr.Event {
+    @Label("Scene")
+    public String scene;
+
+    @Label("Dirty Cells")
+    @Description("Screen cells redrawn when presenting")
+    public int dirtyCells;
+}
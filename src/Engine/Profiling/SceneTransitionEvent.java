@@ -0,0 +1,24 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering a scene transition, including the new scene's synchronous setup.
+ */
+@Name("engine.SceneTransition")
+@Label("Scene Transition")
+@Category({"Engine", "Scene"})
+@Description("A push, pop, replace or async load completing")
+public final class SceneTransitionEvent extends jdk.jfr.Event {
+    @Label("Kind")
+    public String kind;
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+}
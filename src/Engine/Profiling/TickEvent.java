@@ -0,0 +1,25 @@
+package Engine.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering one fixed-step {@code Scene.update}.
+ */
+@Name("engine.Tick")
+@Label("Tick")
+@Category({"Engine", "Loop"})
+@Description("One fixed-step scene update")
+public final class TickEvent extends jdk.jfr.Event {
+    @Label("Scene")
+    public String scene;
+
+    @Label("Layers")
+    public int layers;
+
+    @Label("Objects")
+    @Description("Objects across all layers of the scene")
+    public int objects;
+}
@@ -0,0 +1,178 @@
+package Engine.Scene;
+
+import Engine.Config;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Runs expensive AI work, such as path replans, under a per-tick time budget.
+ * <p>
+ * Agents {@link #submit(Runnable)} a job instead of doing the work in their own
+ * update. At the start of every tick the queue is worked off in submission order
+ * until {@link Config#AI_BUDGET_US} microseconds have been spent; the rest waits for
+ * the next tick. Since an agent whose job ran goes to the back of the queue when it
+ * submits again, every agent gets its turn, and many agents becoming due on the
+ * same tick spread over several ticks instead of causing a spike. At least one job
+ * runs per tick, so a single job longer than the budget cannot stall the queue.
+ * <p>
+ * Agents keep acting on their old plan, or a cheap fallback, while they wait. The
+ * counters show how much work was deferred and for how long.
+ * <p>
+ * In deterministic mode the budget is counted in jobs ({@link Config#AI_JOBS_PER_TICK})
+ * rather than time, so that which jobs run on which tick does not depend on the
+ * speed of the machine.
+ */
+public class AiScheduler {
+
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private final ArrayDeque<Long> submittedAt = new ArrayDeque<>();
+    private final Set<Runnable> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long budgetNanos;
+    private int jobsPerTick;
+    private boolean deterministic = false;
+
+    private long tick = 0;
+    private long executed = 0;
+    private long deferred = 0;
+    private long maxWaitTicks = 0;
+    private long lastTickNanos = 0;
+
+    /**
+     * Constructs a new AiScheduler.
+     *
+     * @param budgetMicros Time AI jobs may use per tick, in microseconds.
+     * @param jobsPerTick  Jobs run per tick in deterministic mode.
+     */
+    public AiScheduler(double budgetMicros, int jobsPerTick) {
+        this.budgetNanos = (long) (budgetMicros * 1000.0);
+        this.jobsPerTick = Math.max(1, jobsPerTick);
+    }
+
+    /**
+     * Queues a job to run on a later tick. A job that is still queued is not added
+     * again, so an agent may submit the same instance every time it is due.
+     *
+     * @param job The work; it should read the agent's state when it runs, not when it was submitted.
+     * @return False if the job was already queued.
+     */
+    public boolean submit(Runnable job) {
+        if (!queued.add(job)) {
+            return false;
+        }
+        queue.addLast(job);
+        submittedAt.addLast(tick);
+        return true;
+    }
+
+    /**
+     * Removes a queued job, e.g. when its agent is destroyed.
+     *
+     * @return True if the job was queued.
+     */
+    public boolean cancel(Runnable job) {
+        if (!queued.remove(job)) {
+            return false;
+        }
+        // Rare; the queue is short, so rebuilding it is cheaper than indexing it.
+        int n = queue.size();
+        for (int i = 0; i < n; i++) {
+            Runnable r = queue.pollFirst();
+            Long at = submittedAt.pollFirst();
+            if (r != job) {
+                queue.addLast(r);
+                submittedAt.addLast(at);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the job is waiting to run.
+     */
+    public boolean isQueued(Runnable job) {
+        return queued.contains(job);
+    }
+
+    /**
+     * Called by the Scene at the start of every tick. Runs queued jobs until the
+     * budget is spent.
+     */
+    void run() {
+        long start = System.nanoTime();
+        int ran = 0;
+        while (!queue.isEmpty()) {
+            if (ran > 0 && (deterministic ? ran >= jobsPerTick : System.nanoTime() - start >= budgetNanos)) {
+                break;
+            }
+            Runnable job = queue.pollFirst();
+            long wait = tick - submittedAt.pollFirst();
+            queued.remove(job);
+            if (wait > maxWaitTicks) {
+                maxWaitTicks = wait;
+            }
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            ran++;
+        }
+        executed += ran;
+        deferred += queue.size();
+        lastTickNanos = System.nanoTime() - start;
+        tick++;
+    }
+
+    /**
+     * Sets the time AI jobs may use per tick.
+     */
+    public void setBudget(double budgetMicros) {
+        this.budgetNanos = (long) (budgetMicros * 1000.0);
+    }
+
+    /**
+     * Counts the budget in jobs per tick instead of time, for reproducible runs.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * @return Jobs waiting to run.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return Jobs run so far.
+     */
+    public long getExecutedCount() {
+        return executed;
+    }
+
+    /**
+     * @return The sum over all ticks of the jobs left waiting when the budget ran
+     * out; a job deferred for three ticks counts three times.
+     */
+    public long getDeferredCount() {
+        return deferred;
+    }
+
+    /**
+     * @return The longest any job has waited, in ticks.
+     */
+    public long getMaxWaitTicks() {
+        return maxWaitTicks;
+    }
+
+    /**
+     * @return Time spent on AI jobs in the last tick, in nanoseconds.
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+}
@@ -12,6 +12,7 @@ public class Camera {
     private Vector2i position;
     private final int width;
     private final int height;
+    private long version = 0;
 
     /**
      * Constructs a new Camera with a specified viewport size.
@@ -41,7 +42,17 @@ public class Camera {
         int clampedX = Math.max(0, Math.min(targetX, worldWidth - width));
         int clampedY = Math.max(0, Math.min(targetY, worldHeight - height));
 
-        this.position = new Vector2i(clampedX, clampedY);
+        if (clampedX != position.x() || clampedY != position.y()) {
+            this.position = new Vector2i(clampedX, clampedY);
+            version++;
+        }
+    }
+
+    /**
+     * @return A counter that changes whenever the camera moves; used to invalidate cached frames.
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
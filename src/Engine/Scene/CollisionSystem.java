@@ -1,5 +1,6 @@
 package Engine.Scene;
 
+import Engine.Profiling.CollisionCheckEvent;
 import Engine.Utils.Vector2i;
 
 import java.util.ArrayList;
@@ -28,9 +29,11 @@ public class CollisionSystem {
     }
 
     private final Map<Integer, List<Collider>> grid = new HashMap<>();
-    private final List<Collider> staticColliders = new ArrayList<>();
-    private final List<Collider> dynamicColliders = new ArrayList<>();
+    // Index-tracked so that mass removal (e.g. despawning a crowd) stays linear.
+    private final List<Collider> staticColliders = new IndexedList<>();
+    private final List<Collider> dynamicColliders = new IndexedList<>();
     private final int cellSize;
+    private int lastContactCount = 0;
 
     /**
      * Constructs a new CollisionSystem.
@@ -99,13 +102,23 @@ public class CollisionSystem {
      * @param eventBus The event bus to publish collision events to.
      */
     public void checkCollisions(EventBus eventBus) {
+        CollisionCheckEvent checkEvent = new CollisionCheckEvent();
+        checkEvent.begin();
+        int candidateCount = 0;
+        int pairsTested = 0;
+
         Set<CollisionEvent> reportedCollisions = new HashSet<>();
         Set<TriggerEvent> reportedTriggers = new HashSet<>();
 
         for (Collider dynamicCollider : dynamicColliders) {
             List<Collider> candidates = query(dynamicCollider);
+            candidateCount += candidates.size();
             for (Collider candidate : candidates) {
-                if (dynamicCollider != candidate && dynamicCollider.intersects(candidate)) {
+                if (dynamicCollider == candidate) {
+                    continue;
+                }
+                pairsTested++;
+                if (dynamicCollider.intersects(candidate)) {
                     if (dynamicCollider.isTrigger() || candidate.isTrigger()) {
                         TriggerEvent event = createTriggerEvent(dynamicCollider, candidate);
                         if (!reportedTriggers.contains(event)) {
@@ -122,6 +135,33 @@ public class CollisionSystem {
                 }
             }
         }
+
+        lastContactCount = reportedCollisions.size() + reportedTriggers.size();
+
+        checkEvent.end();
+        if (checkEvent.shouldCommit()) {
+            checkEvent.dynamicColliders = dynamicColliders.size();
+            checkEvent.staticColliders = staticColliders.size();
+            checkEvent.candidates = candidateCount;
+            checkEvent.pairsTested = pairsTested;
+            checkEvent.contacts = lastContactCount;
+            checkEvent.commit();
+        }
+    }
+
+    /**
+     * @return The number of static and dynamic colliders in the system.
+     */
+    public int getColliderCount() {
+        return staticColliders.size() + dynamicColliders.size();
+    }
+
+    /**
+     * @return The number of distinct collision and trigger pairs found by the last
+     * {@link #checkCollisions(EventBus)}.
+     */
+    public int getLastContactCount() {
+        return lastContactCount;
     }
 
     /**
@@ -191,16 +231,22 @@ public class CollisionSystem {
     }
 
     private CollisionEvent createCollisionEvent(Collider a, Collider b) {
-        // Sort by hashcode to avoid duplicate events (A, B) and (B, A).
-        return (a.hashCode() < b.hashCode())
+        // Sort by entity id to avoid duplicate events (A, B) and (B, A), in the same order on every run.
+        return precedes(a, b)
                 ? new CollisionEvent(a, b)
                 : new CollisionEvent(b, a);
     }
 
     private TriggerEvent createTriggerEvent(Collider a, Collider b) {
-        // Sort by hashcode to avoid duplicate events (A, B) and (B, A).
-        return (a.hashCode() < b.hashCode())
+        // Sort by entity id to avoid duplicate events (A, B) and (B, A), in the same order on every run.
+        return precedes(a, b)
                 ? new TriggerEvent(a, b)
                 : new TriggerEvent(b, a);
     }
+
+    private static boolean precedes(Collider a, Collider b) {
+        long idA = (a.getEntity() != null) ? a.getEntity().getId() : 0;
+        long idB = (b.getEntity() != null) ? b.getEntity().getId() : 0;
+        return (idA != idB) ? idA < idB : a.hashCode() < b.hashCode();
+    }
 }
@@ -15,6 +15,8 @@ public abstract class Entity implements MonoBehaviour {
     protected Vector2i previousPosition;
     protected Collider collider;
     private final Scene scene;
+    private final long id;
+    private int layerCount = 0; // layers holding this entity; it is hashed while > 0
 
     /**
      * Constructs a new Entity.
@@ -24,6 +26,7 @@ public abstract class Entity implements MonoBehaviour {
      */
     public Entity(Scene scene, Vector2i position) {
         this.scene = scene;
+        this.id = scene.allocateEntityId();
         this.position = position;
         this.previousPosition = position;
         this.collider = null; // Collider is optional.
@@ -70,6 +73,37 @@ public abstract class Entity implements MonoBehaviour {
         // The Default implementation is empty.
     }
 
+    /**
+     * Called when the entity has been removed from the last layer it was in.
+     * Override this to release what it holds, such as timers.
+     */
+    protected void onRemoved() {
+        // The Default implementation is empty.
+    }
+
+    /**
+     * Gets the id of this entity. Ids are handed out by the scene in creation order,
+     * so the same setup code gives every entity the same id on every run.
+     *
+     * @return The id, unique within the scene.
+     */
+    public final long getId() {
+        return id;
+    }
+
+    void enterWorld() {
+        if (layerCount++ == 0) {
+            scene.hashEntity(id, position);
+        }
+    }
+
+    void leaveWorld() {
+        if (--layerCount == 0) {
+            scene.hashEntity(id, position);
+            onRemoved();
+        }
+    }
+
     /**
      * Gets the scene this entity belongs to.
      *
@@ -130,13 +164,18 @@ public abstract class Entity implements MonoBehaviour {
     }
 
     /**
-     * Sets the position of this entity, updating its previous position and requesting a render.
+     * Sets the position of this entity, updating its previous position and requesting a
+     * redraw of the layer it lives in.
      *
      * @param position The new position.
      */
     public void setPosition(Vector2i position) {
         this.previousPosition = this.position;
         this.position = position;
-        this.scene.requestRender();
+        if (layerCount > 0) {
+            scene.hashEntity(id, previousPosition);
+            scene.hashEntity(id, position);
+        }
+        this.scene.requestRender(this);
     }
 }
@@ -0,0 +1,78 @@
+package Engine.Scene;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An array-backed list that remembers the index of every element so that
+ * membership tests and removals run in O(1). Removal swaps the last element
+ * into the freed slot, so iteration order is not preserved across removals.
+ * Elements are compared by identity and may appear at most once.
+ *
+ * @param <T> The element type.
+ */
+final class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> items = new ArrayList<>();
+    private final Map<T, Integer> indices = new IdentityHashMap<>();
+
+    /**
+     * Appends an element if it is not already present.
+     *
+     * @param item The element to add.
+     * @return True if the element was added.
+     */
+    @Override
+    public boolean add(T item) {
+        if (indices.containsKey(item)) {
+            return false;
+        }
+        indices.put(item, items.size());
+        items.add(item);
+        return true;
+    }
+
+    /**
+     * Removes an element by swapping the last element into its slot.
+     *
+     * @param item The element to remove.
+     * @return True if the element was present.
+     */
+    @Override
+    public boolean remove(Object item) {
+        Integer index = indices.remove(item);
+        if (index == null) {
+            return false;
+        }
+        T last = items.removeLast();
+        if (index < items.size()) {
+            items.set(index, last);
+            indices.put(last, index);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object item) {
+        return indices.containsKey(item);
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        indices.clear();
+    }
+}
@@ -3,16 +3,40 @@ package Engine.Scene;
 import Engine.Graphics.Renderer;
 import Engine.Input.InputAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * A Layer is a container for a collection of MonoBehaviour objects.
  * Layers are used to organize and render objects in a specific order.
+ * <p>
+ * Structural changes made while the layer is being iterated (for example an
+ * entity spawning or despawning another from inside {@code update}) are queued
+ * and applied in one batch once iteration finishes. When the layer belongs to a
+ * Scene, the batch is applied at the end of the scene's tick. Removal is O(1)
+ * and swaps the last object into the freed slot, so the relative order of the
+ * remaining objects may change.
+ * <p>
+ * Each object belongs to a {@link TickGroup}. Objects added without a group are
+ * updated on every tick by the layer; objects in rated groups are updated by the
+ * scene's {@link TickScheduler}; {@link TickGroup#NEVER} objects are only rendered.
  */
 public class Layer {
-    protected final List<MonoBehaviour> objects = new ArrayList<>();
+    protected final List<MonoBehaviour> objects = new IndexedList<>();
     protected Scene scene; // made protected for subclass access
 
+    // Subset of objects updated by this layer on every tick.
+    private final IndexedList<MonoBehaviour> everyTick = new IndexedList<>();
+
+    private enum Op { ADD, REMOVE, REGROUP }
+
+    private record Command(Op op, MonoBehaviour obj, TickGroup group) {
+    }
+
+    private final List<Command> pending = new ArrayList<>();
+    private int deferDepth = 0;
+    private boolean dirty = true;
+
     public Layer() {
         this.scene = null;
     }
@@ -29,8 +53,13 @@ public class Layer {
      * Called when the layer is started.
      */
     public void onStart() {
-        for (MonoBehaviour obj : objects)
-            obj.onStart();
+        beginDeferred();
+        try {
+            for (MonoBehaviour obj : objects)
+                obj.onStart();
+        } finally {
+            endDeferred();
+        }
     }
 
     /**
@@ -40,8 +69,13 @@ public class Layer {
      * @param ia The current input state.
      */
     public void update(double dt, InputAction ia) {
-        for (MonoBehaviour obj : objects)
-            obj.update(dt, ia);
+        beginDeferred();
+        try {
+            for (MonoBehaviour obj : everyTick)
+                obj.update(dt, ia);
+        } finally {
+            endDeferred();
+        }
     }
 
     /**
@@ -50,29 +84,185 @@ public class Layer {
      * @param r The renderer to draw to.
      */
     public void render(Renderer r) {
-        for (MonoBehaviour obj : objects)
-            obj.render(r);
+        beginDeferred();
+        try {
+            for (MonoBehaviour obj : objects)
+                obj.render(r);
+        } finally {
+            endDeferred();
+        }
     }
 
     /**
-     * Adds a MonoBehaviour to this layer.
+     * Adds a MonoBehaviour to this layer. If the layer is currently being
+     * iterated, the addition is deferred until iteration ends.
      *
      * @param obj The object to add.
      */
     public void addObject(MonoBehaviour obj) {
-        objects.add(obj);
+        addObject(obj, TickGroup.EVERY_TICK);
     }
 
     /**
-     * Removes a MonoBehaviour from this layer.
+     * Adds a MonoBehaviour to this layer and places it in a tick group. If the
+     * layer is currently being iterated, the addition is deferred until
+     * iteration ends.
+     *
+     * @param obj   The object to add.
+     * @param group The tick group deciding how often the object is updated.
+     */
+    public void addObject(MonoBehaviour obj, TickGroup group) {
+        if (deferDepth > 0) {
+            pending.add(new Command(Op.ADD, obj, group));
+        } else if (objects.add(obj)) {
+            assignTickGroup(obj, group);
+            enterWorld(obj);
+        }
+    }
+
+    /**
+     * Moves an object that is already part of this layer into another tick group.
+     *
+     * @param obj   The object to move.
+     * @param group The new tick group.
+     */
+    public void setTickGroup(MonoBehaviour obj, TickGroup group) {
+        if (deferDepth > 0) {
+            pending.add(new Command(Op.REGROUP, obj, group));
+        } else if (objects.contains(obj)) {
+            assignTickGroup(obj, group);
+        }
+    }
+
+    /**
+     * Removes a MonoBehaviour from this layer in O(1). If the layer is currently
+     * being iterated, the removal is deferred until iteration ends.
      *
      * @param obj The object to remove.
      */
     public void removeObject(MonoBehaviour obj) {
-        objects.remove(obj);
+        if (deferDepth > 0) {
+            pending.add(new Command(Op.REMOVE, obj, null));
+        } else if (objects.remove(obj)) {
+            clearTickGroup(obj);
+            leaveWorld(obj);
+        }
+    }
+
+    /**
+     * Checks whether an object is currently part of this layer. Pending
+     * additions and removals are not taken into account.
+     *
+     * @param obj The object to look up.
+     * @return True if the object is in the layer.
+     */
+    public boolean containsObject(MonoBehaviour obj) {
+        return objects.contains(obj);
     }
 
+    /**
+     * @return A read-only view of the objects in this layer; add and remove them
+     * through the layer.
+     */
     public List<MonoBehaviour> getObjects() {
-        return objects;
+        return Collections.unmodifiableList(objects);
+    }
+
+    /**
+     * Marks this layer as visually changed so that it is redrawn on the next frame
+     * while the layers below it are reused from the render cache.
+     */
+    public void markDirty() {
+        if (scene != null) {
+            scene.requestRender(this);
+        } else {
+            dirty = true;
+        }
+    }
+
+    final boolean isDirty() {
+        return dirty;
+    }
+
+    final void setDirty() {
+        dirty = true;
+    }
+
+    final void clearDirty() {
+        dirty = false;
+    }
+
+    /**
+     * Starts a region in which structural changes are queued instead of applied.
+     * Regions nest; the queue is flushed when the outermost region ends.
+     */
+    final void beginDeferred() {
+        deferDepth++;
+    }
+
+    /**
+     * Ends a deferred region, applying all queued changes in the order they
+     * were requested once the outermost region has ended.
+     */
+    final void endDeferred() {
+        if (--deferDepth == 0 && !pending.isEmpty()) {
+            applyPendingChanges();
+        }
+    }
+
+    // Entities contribute to their scene's state hash while they are part of a layer.
+    private static void enterWorld(MonoBehaviour obj) {
+        if (obj instanceof Entity e) {
+            e.enterWorld();
+        }
+    }
+
+    private static void leaveWorld(MonoBehaviour obj) {
+        if (obj instanceof Entity e) {
+            e.leaveWorld();
+        }
+    }
+
+    private void applyPendingChanges() {
+        for (Command c : pending) {
+            switch (c.op()) {
+                case ADD -> {
+                    if (objects.add(c.obj())) {
+                        assignTickGroup(c.obj(), c.group());
+                        enterWorld(c.obj());
+                    }
+                }
+                case REMOVE -> {
+                    if (objects.remove(c.obj())) {
+                        clearTickGroup(c.obj());
+                        leaveWorld(c.obj());
+                    }
+                }
+                case REGROUP -> {
+                    if (objects.contains(c.obj())) {
+                        assignTickGroup(c.obj(), c.group());
+                    }
+                }
+            }
+        }
+        pending.clear();
+    }
+
+    private void assignTickGroup(MonoBehaviour obj, TickGroup group) {
+        clearTickGroup(obj);
+        if (group == null || group == TickGroup.EVERY_TICK) {
+            everyTick.add(obj);
+        } else if (group.isScheduled()) {
+            if (scene == null) {
+                throw new IllegalStateException("Rated tick groups require a layer that belongs to a scene");
+            }
+            scene.ticks().register(obj, group);
+        }
+    }
+
+    private void clearTickGroup(MonoBehaviour obj) {
+        if (!everyTick.remove(obj) && scene != null && scene.hasTickScheduler()) {
+            scene.ticks().unregister(obj);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package Engine.Scene;
+
+import Engine.Graphics.Renderer;
+import Engine.Input.InputAction;
+import Engine.Utils.TextUtils;
+
+import java.awt.Color;
+
+/**
+ * A lightweight scene shown while another scene is prepared on a worker thread
+ * (see {@link SceneTransition.ReplaceAsync}). It draws a progress bar driven by
+ * the target scene's {@link Scene#getLoadProgress()}.
+ */
+public class LoadingScene extends Scene {
+    private static final int BAR_WIDTH = 30;
+
+    private final Scene target;
+    private int shownPercent = -1;
+
+    /**
+     * Constructs a new LoadingScene.
+     *
+     * @param target The scene being prepared, whose progress is displayed.
+     */
+    public LoadingScene(Scene target) {
+        this.target = target;
+    }
+
+    @Override
+    public void onStart() {
+        requestRender();
+    }
+
+    @Override
+    public void update(double dt, InputAction ia) {
+        // Drop keys typed while loading so they don't leak into the next scene.
+        while (ia.hasNextKeyTyped()) {
+            ia.getNextKeyTyped();
+        }
+        int percent = (int) Math.round(target.getLoadProgress() * 100);
+        if (percent != shownPercent) {
+            shownPercent = percent;
+            requestRender();
+        }
+    }
+
+    @Override
+    public void render(Renderer r) {
+        int w = r.getWidth();
+        int h = r.getHeight();
+        int percent = Math.max(0, shownPercent);
+        int filled = percent * BAR_WIDTH / 100;
+
+        String title = "Loading...";
+        String bar = "[" + "#".repeat(filled) + " ".repeat(BAR_WIDTH - filled) + "] " + percent + "%";
+
+        TextUtils.drawText(r, title, w / 2 - title.length() / 2, h / 2 + 2, Color.CYAN);
+        TextUtils.drawText(r, bar, w / 2 - bar.length() / 2, h / 2);
+    }
+}
@@ -0,0 +1,16 @@
+package Engine.Scene;
+
+/**
+ * Implemented by entities that want to adapt their behaviour to the simulation
+ * level of detail assigned by {@link SimulationLod}, for example by skipping
+ * expensive planning while far from the camera.
+ */
+public interface LodAware {
+    /**
+     * Called when the entity moves into a different tier. The new update rate
+     * takes effect once the current tick has finished.
+     *
+     * @param tier The new tier.
+     */
+    void onLodChanged(SimulationLod.Tier tier);
+}
@@ -0,0 +1,167 @@
+package Engine.Scene;
+
+import Engine.Graphics.Renderer;
+import Engine.Input.InputAction;
+import Engine.Profiling.FrameMetrics;
+import Engine.Profiling.LatencyHistogram;
+import Engine.Profiling.Phase;
+import Engine.Utils.TextUtils;
+
+import java.awt.Color;
+
+/**
+ * A built-in layer that draws live performance numbers in the bottom-right corner
+ * of the frame: frames and ticks per second, mean tick and render time, cells
+ * redrawn by the last present, object and collider counts, and contact pairs.
+ * <p>
+ * The overlay is owned by the game loop rather than by a scene, so it works on top
+ * of any scene: the loop updates it every tick and renders it after the scene. The
+ * numbers are refreshed a few times per second into fixed char buffers, so neither
+ * updating nor rendering the overlay allocates.
+ */
+public class PerfOverlay extends Layer {
+    private static final double REFRESH_SEC = 0.25;
+    private static final int LINE_WIDTH = 24;
+    private static final Color TEXT_COLOR = Color.GREEN;
+
+    private final FrameMetrics metrics;
+    private final char[][] lines = new char[4][LINE_WIDTH];
+    private final int[] lengths = new int[4];
+
+    private double sinceRefresh = 0;
+    private long windowStart = System.nanoTime();
+    private int ticks = 0;
+    private int frames = 0;
+    private int dirtyCells = 0;
+    private long lastUpdateCount, lastUpdateSum;
+    private long lastRenderCount, lastRenderSum;
+
+    /**
+     * @param metrics The engine's phase timers, source of the tick and render times.
+     */
+    public PerfOverlay(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Points the overlay at the scene whose objects and colliders it counts.
+     *
+     * @param scene The current scene.
+     */
+    public void track(Scene scene) {
+        this.scene = scene;
+    }
+
+    @Override
+    public void update(double dt, InputAction ia) {
+        ticks++;
+        sinceRefresh += dt;
+        if (sinceRefresh < REFRESH_SEC) {
+            return;
+        }
+        sinceRefresh = 0;
+
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - windowStart) / 1e9);
+        double fps = frames / seconds;
+        double tps = ticks / seconds;
+        windowStart = now;
+        frames = 0;
+        ticks = 0;
+
+        LatencyHistogram update = metrics.histogram(Phase.UPDATE);
+        LatencyHistogram render = metrics.histogram(Phase.RENDER);
+        double tickMs = windowMeanMs(update.count() - lastUpdateCount, update.sum() - lastUpdateSum);
+        double renderMs = windowMeanMs(render.count() - lastRenderCount, render.sum() - lastRenderSum);
+        lastUpdateCount = update.count();
+        lastUpdateSum = update.sum();
+        lastRenderCount = render.count();
+        lastRenderSum = render.sum();
+
+        CollisionSystem collisions = (scene == null) ? null : scene.collisionSystemIfPresent();
+        int objects = (scene == null) ? 0 : scene.objectCount();
+        int colliders = (collisions == null) ? 0 : collisions.getColliderCount();
+        int contacts = (collisions == null) ? 0 : collisions.getLastContactCount();
+
+        int n = 0;
+        n = putText(0, n, "FPS ");
+        n = putFixed(0, n, fps);
+        n = putText(0, n, "  TPS ");
+        lengths[0] = putFixed(0, n, tps);
+
+        n = putText(1, 0, "tick ");
+        n = putFixed(1, n, tickMs);
+        n = putText(1, n, "ms rnd ");
+        n = putFixed(1, n, renderMs);
+        lengths[1] = putText(1, n, "ms");
+
+        n = putText(2, 0, "dirty ");
+        n = putInt(2, n, dirtyCells);
+        n = putText(2, n, " obj ");
+        lengths[2] = putInt(2, n, objects);
+
+        n = putText(3, 0, "coll ");
+        n = putInt(3, n, colliders);
+        n = putText(3, n, " pairs ");
+        lengths[3] = putInt(3, n, contacts);
+
+        if (scene != null) {
+            scene.requestOverlayRender();
+        }
+    }
+
+    @Override
+    public void render(Renderer r) {
+        frames++;
+        dirtyCells = r.getLastDirtyCellCount();
+        int x = r.getWidth() - LINE_WIDTH;
+        for (int i = 0; i < lines.length; i++) {
+            // Pad every line to full width so stale digits are overwritten.
+            for (int c = lengths[i]; c < LINE_WIDTH; c++) {
+                lines[i][c] = ' ';
+            }
+            TextUtils.drawText(r, lines[i], LINE_WIDTH, x, lines.length - 1 - i, TEXT_COLOR);
+        }
+    }
+
+    private static double windowMeanMs(long count, long sumNanos) {
+        return count <= 0 ? 0.0 : sumNanos / (double) count / 1e6;
+    }
+
+    private int putText(int line, int at, String text) {
+        char[] buf = lines[line];
+        for (int i = 0; i < text.length() && at < LINE_WIDTH; i++) {
+            buf[at++] = text.charAt(i);
+        }
+        return at;
+    }
+
+    private int putInt(int line, int at, long value) {
+        char[] buf = lines[line];
+        if (value < 0) {
+            if (at < LINE_WIDTH) buf[at++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = Math.min(LINE_WIDTH, at + digits);
+        for (int i = at + digits - 1; i >= at; i--) {
+            if (i < LINE_WIDTH) {
+                buf[i] = (char) ('0' + value % 10);
+            }
+            value /= 10;
+        }
+        return end;
+    }
+
+    // One decimal place.
+    private int putFixed(int line, int at, double value) {
+        long tenths = Math.round(value * 10);
+        at = putInt(line, at, tenths / 10);
+        if (at < LINE_WIDTH) lines[line][at++] = '.';
+        if (at < LINE_WIDTH) lines[line][at++] = (char) ('0' + Math.abs(tenths % 10));
+        return at;
+    }
+}
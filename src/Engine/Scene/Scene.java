@@ -3,6 +3,11 @@ package Engine.Scene;
 import Engine.Config;
 import Engine.Graphics.Renderer;
 import Engine.Input.InputAction;
+import Engine.Profiling.FrameMetrics;
+import Engine.Profiling.Phase;
+import Engine.Profiling.TickEvent;
+import Engine.Utils.Vector2i;
+import utils.RandomUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +22,19 @@ public abstract class Scene {
     private final List<Layer> layers = new ArrayList<>();
     private Camera camera;
     private CollisionSystem collisionSystem;
+    private TickScheduler tickScheduler;
+    private TimerWheel timerWheel;
+    private SimulationLod simulationLod;
+    private AiScheduler aiScheduler;
     private EventBus eventBus;
     private boolean renderRequested = true; // Initial render is always requested.
+    private boolean fullRenderRequested = true;
+    private int renderedLayerCount = 0;
+    private long renderedCameraVersion = -1;
+    private volatile double loadProgress = 0.0;
+    private FrameMetrics metrics;
+    private long nextEntityId = 1;
+    private long stateHash = 0;
     protected Config config;
 
     /**
@@ -34,6 +50,26 @@ public abstract class Scene {
         return this.config;
     }
 
+    /**
+     * Called by the SceneManager so the scene can time the phases that run inside
+     * {@link #update(double, InputAction)}, such as collision detection.
+     *
+     * @param metrics The engine's metrics, or null to disable timing.
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Called once before {@link #onStart()} to do the heavy part of the scene's setup,
+     * such as generating a map and building layers and entities. When the scene is
+     * loaded with {@link SceneTransition.ReplaceAsync} this runs on a worker thread,
+     * so it must only touch this scene's own state (no rendering, no other scenes).
+     * Use {@link #reportLoadProgress(double)} to drive the loading screen.
+     */
+    public void prepare() {
+    }
+
     /**
      * Called once by the Engine after the Scene is created but before the first frame.
      * Use this to initialize layers, entities, and event subscriptions.
@@ -53,23 +89,94 @@ public abstract class Scene {
      * @param ia The current input state.
      */
     public void update(double dt, InputAction ia) {
-        for (Layer layer : layers) {
-            layer.update(dt, ia);
+        TickEvent tickEvent = new TickEvent();
+        tickEvent.begin();
+
+        // Spawns and despawns requested anywhere during the tick (including
+        // collision callbacks) are batched and applied once the tick ends.
+        int deferred = layers.size();
+        for (int i = 0; i < deferred; i++) {
+            layers.get(i).beginDeferred();
         }
-        if (this.collisionSystem != null) {
-            this.collisionSystem.checkCollisions(this.eventBus);
+        try {
+            if (this.simulationLod != null) {
+                this.simulationLod.update();
+            }
+            if (this.aiScheduler != null) {
+                this.aiScheduler.run();
+            }
+            for (Layer layer : layers) {
+                layer.update(dt, ia);
+            }
+            if (this.tickScheduler != null) {
+                this.tickScheduler.tick(dt, ia);
+            }
+            if (this.timerWheel != null) {
+                this.timerWheel.advance(dt);
+            }
+            if (this.collisionSystem != null) {
+                long start = (metrics != null) ? System.nanoTime() : 0;
+                this.collisionSystem.checkCollisions(this.eventBus);
+                if (metrics != null) {
+                    metrics.record(Phase.COLLISION, System.nanoTime() - start);
+                }
+            }
+        } finally {
+            for (int i = 0; i < deferred; i++) {
+                layers.get(i).endDeferred();
+            }
+        }
+
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.scene = getClass().getSimpleName();
+            tickEvent.layers = layers.size();
+            for (Layer layer : layers) {
+                tickEvent.objects += layer.objects.size();
+            }
+            tickEvent.commit();
         }
     }
 
     /**
      * Called by the GameLoop when a render is requested. It draws all visible objects.
+     * <p>
+     * The output of every layer is cached by the Renderer. Only the lowest dirty
+     * layer and the layers above it are redrawn, on top of the cached output of the
+     * layer below; a full redraw happens after {@link #requestRender()}, when the
+     * camera has moved, or when the set of layers has changed.
      *
      * @param r The Renderer to use for drawing.
      */
     public void render(Renderer r) {
-        for (Layer layer : layers) {
+        long cameraVersion = (camera == null) ? 0 : camera.getVersion();
+        boolean full = !r.claimLayerCache(this)
+                || fullRenderRequested
+                || renderedLayerCount != layers.size()
+                || renderedCameraVersion != cameraVersion;
+
+        int first = 0;
+        if (!full) {
+            first = layers.size();
+            for (int i = 0; i < layers.size(); i++) {
+                if (layers.get(i).isDirty()) {
+                    first = i;
+                    break;
+                }
+            }
+            if (first > 0 && !r.restoreLayer(first - 1)) {
+                first = 0;
+            }
+        }
+        for (int i = first; i < layers.size(); i++) {
+            Layer layer = layers.get(i);
             layer.render(r);
+            layer.clearDirty();
+            r.saveLayer(i);
         }
+        fullRenderRequested = false;
+        renderedLayerCount = layers.size();
+        renderedCameraVersion = cameraVersion;
     }
 
     /**
@@ -99,13 +206,61 @@ public abstract class Scene {
         return null;
     }
 
+    /**
+     * Reports how far {@link #prepare()} has progressed.
+     *
+     * @param progress A fraction between 0 and 1.
+     */
+    protected final void reportLoadProgress(double progress) {
+        this.loadProgress = Math.max(0.0, Math.min(1.0, progress));
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return The last progress reported by {@link #prepare()}, between 0 and 1.
+     */
+    public final double getLoadProgress() {
+        return this.loadProgress;
+    }
+
     //–- Render-on-demand API –-//
 
     /**
      * Signals to the GameLoop that a redraw is needed because the visual state has changed.
+     * Every layer is redrawn on the next frame.
      */
     public final void requestRender() {
         this.renderRequested = true;
+        this.fullRenderRequested = true;
+    }
+
+    /**
+     * Signals that only the given layer's visuals have changed. On the next frame the
+     * layers below it are taken from the Renderer's cache.
+     *
+     * @param layer The layer that changed.
+     */
+    public final void requestRender(Layer layer) {
+        layer.setDirty();
+        this.renderRequested = true;
+    }
+
+    /**
+     * Signals that the visuals of a single object have changed; only the layer that
+     * contains it (and the layers above) are redrawn. Falls back to a full redraw if
+     * the object is not part of any layer.
+     *
+     * @param source The object that changed.
+     */
+    public final void requestRender(MonoBehaviour source) {
+        for (Layer layer : layers) {
+            if (layer.containsObject(source)) {
+                requestRender(layer);
+                return;
+            }
+        }
+        requestRender();
     }
 
     /**
@@ -182,6 +337,107 @@ public abstract class Scene {
         return this.collisionSystem;
     }
 
+    /**
+     * Lazily initializes and returns the TickScheduler for this scene. Use it to
+     * create rated {@link TickGroup}s for objects that do not need an update on
+     * every fixed step.
+     *
+     * @return The singleton TickScheduler for this scene.
+     */
+    protected final TickScheduler ticks() {
+        if (this.tickScheduler == null) {
+            this.tickScheduler = new TickScheduler(config.TICK_RATE);
+        }
+        return this.tickScheduler;
+    }
+
+    /**
+     * Lazily initializes and returns the TimerWheel for this scene. Timers are
+     * advanced by the fixed step and fire inside the tick, before collisions are
+     * checked.
+     *
+     * @return The singleton TimerWheel for this scene.
+     */
+    protected final TimerWheel timers() {
+        if (this.timerWheel == null) {
+            this.timerWheel = new TimerWheel(config.TICK_RATE);
+        }
+        return this.timerWheel;
+    }
+
+    /**
+     * Lazily initializes and returns the simulation level-of-detail manager for
+     * this scene. Tracked entities are moved into slower tick groups the further
+     * they are from the camera viewport.
+     *
+     * @return The singleton SimulationLod for this scene.
+     */
+    protected final SimulationLod lod() {
+        if (this.simulationLod == null) {
+            this.simulationLod = new SimulationLod(this);
+        }
+        return this.simulationLod;
+    }
+
+    /**
+     * Lazily initializes and returns the AI scheduler for this scene. Jobs submitted
+     * to it run at the start of later ticks, within {@link Config#AI_BUDGET_US} per tick.
+     *
+     * @return The singleton AiScheduler for this scene.
+     */
+    protected final AiScheduler ai() {
+        if (this.aiScheduler == null) {
+            this.aiScheduler = new AiScheduler(config.AI_BUDGET_US, config.AI_JOBS_PER_TICK);
+            this.aiScheduler.setDeterministic(config.DETERMINISTIC);
+        }
+        return this.aiScheduler;
+    }
+
+    final boolean hasTickScheduler() {
+        return this.tickScheduler != null;
+    }
+
+    final long allocateEntityId() {
+        return nextEntityId++;
+    }
+
+    // XOR is its own inverse: hashing an (id, position) pair again removes it.
+    final void hashEntity(long id, Vector2i position) {
+        long packed = ((long) position.x() << 32) ^ (position.y() & 0xFFFFFFFFL);
+        stateHash ^= RandomUtils.mix64(RandomUtils.mix64(id) ^ packed);
+    }
+
+    /**
+     * Returns a hash of the world state: the id and position of every entity in a
+     * layer. It is updated incrementally on every move, so it is cheap to read each
+     * tick; two runs that produce the same hash on the same tick almost certainly
+     * have the same state. Used to detect divergence in deterministic mode.
+     *
+     * @return The current state hash.
+     */
+    public final long getStateHash() {
+        return stateHash;
+    }
+
+    // For the PerfOverlay: does not create the system if the scene has none.
+    final CollisionSystem collisionSystemIfPresent() {
+        return this.collisionSystem;
+    }
+
+    // For the PerfOverlay: objects across all layers.
+    final int objectCount() {
+        int count = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            count += layers.get(i).objects.size();
+        }
+        return count;
+    }
+
+    // For the PerfOverlay: asks for a frame without marking any layer dirty.
+    final void requestOverlayRender() {
+        this.renderRequested = true;
+    }
+
     /**
      * Handles collision events from the EventBus, performs automatic resolution,
      * and dispatches gameplay-level collision events to the entities involved.
@@ -4,7 +4,8 @@ package Engine.Scene;
  * Represents a command to change the active scene.
  * A Scene can return a SceneTransition to the SceneManager to request a change.
  */
-public sealed interface SceneTransition permits SceneTransition.Push, SceneTransition.Pop, SceneTransition.Replace {
+public sealed interface SceneTransition permits SceneTransition.Push, SceneTransition.Pop, SceneTransition.Replace,
+        SceneTransition.ReplaceAsync {
     /**
      * Pushes a new scene onto the stack.
      */
@@ -19,4 +20,16 @@ public sealed interface SceneTransition permits SceneTransition.Push, SceneTrans
      * Replaces the current scene with a new one.
      */
     record Replace(Scene next) implements SceneTransition {}
+
+    /**
+     * Replaces the current scene with a new one whose {@link Scene#prepare()} runs on a
+     * worker thread. The loading scene is shown over the paused current scene meanwhile,
+     * and both are swapped for the new scene on the game thread once preparation has
+     * finished. If it fails, the current scene resumes.
+     */
+    record ReplaceAsync(Scene next, Scene loading) implements SceneTransition {
+        public ReplaceAsync(Scene next) {
+            this(next, new LoadingScene(next));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package Engine.Scene;
+
+import Engine.Config;
+import Engine.Utils.Vector2i;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Assigns tracked entities a simulation level of detail based on their distance
+ * (in tiles) to the camera viewport, and moves them into slower tick groups the
+ * further away they are.
+ * <p>
+ * Entities inside the viewport or within {@link Config#LOD_NEAR_DISTANCE} keep the
+ * tick group they were tracked with. Entities up to {@link Config#LOD_MID_DISTANCE}
+ * away are updated at {@link Config#LOD_MID_HZ}, everything further at
+ * {@link Config#LOD_FAR_HZ}. Entities implementing {@link LodAware} are told about
+ * tier changes so they can switch to a cheaper, coarser behaviour.
+ * <p>
+ * Tiers are re-evaluated a slice at a time, so that every tracked entity is
+ * visited once per {@link Config#LOD_REASSESS_SEC} without a spike on any tick.
+ */
+public class SimulationLod {
+
+    /**
+     * Level of detail tiers, from full simulation to the coarsest.
+     */
+    public enum Tier {
+        NEAR,
+        MID,
+        FAR
+    }
+
+    private static final class Entry {
+        final Layer layer;
+        final TickGroup nearGroup;
+        Tier tier = null;
+
+        Entry(Layer layer, TickGroup nearGroup) {
+            this.layer = layer;
+            this.nearGroup = nearGroup;
+        }
+    }
+
+    private final Scene scene;
+    private final IndexedList<Entity> tracked = new IndexedList<>();
+    private final Map<Entity, Entry> entries = new IdentityHashMap<>();
+    private TickGroup midGroup;
+    private TickGroup farGroup;
+    private int cursor = 0;
+
+    /**
+     * Constructs a new SimulationLod.
+     *
+     * @param scene The scene whose camera and tick scheduler are used.
+     */
+    public SimulationLod(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Starts managing the update rate of an entity. The entity must already be
+     * part of the given layer.
+     *
+     * @param layer     The layer the entity lives in.
+     * @param entity    The entity to manage.
+     * @param nearGroup The tick group to use while the entity is near the camera.
+     */
+    public void track(Layer layer, Entity entity, TickGroup nearGroup) {
+        Entry e = new Entry(layer, nearGroup);
+        entries.put(entity, e);
+        tracked.add(entity);
+        reassess(entity, e);
+    }
+
+    /**
+     * Stops managing an entity and restores its near tick group.
+     *
+     * @param entity The entity to release.
+     */
+    public void untrack(Entity entity) {
+        Entry e = entries.remove(entity);
+        if (e != null) {
+            tracked.remove(entity);
+            e.layer.setTickGroup(entity, e.nearGroup);
+        }
+    }
+
+    /**
+     * @param entity A tracked entity.
+     * @return The entity's current tier, or {@link Tier#NEAR} if it is not tracked.
+     */
+    public Tier tierOf(Entity entity) {
+        Entry e = entries.get(entity);
+        return (e == null || e.tier == null) ? Tier.NEAR : e.tier;
+    }
+
+    /**
+     * @return The number of tracked entities.
+     */
+    public int size() {
+        return tracked.size();
+    }
+
+    /**
+     * Re-evaluates the next slice of tracked entities. Called by the Scene once per tick.
+     */
+    void update() {
+        int n = tracked.size();
+        if (n == 0) {
+            return;
+        }
+        Config config = scene.getConfig();
+        int ticksPerPass = (int) Math.max(1, Math.round(config.LOD_REASSESS_SEC * config.TICK_RATE));
+        int slice = (n + ticksPerPass - 1) / ticksPerPass;
+        for (int i = 0; i < slice && !tracked.isEmpty(); i++) {
+            if (cursor >= tracked.size()) {
+                cursor = 0;
+            }
+            Entity entity = tracked.get(cursor);
+            Entry e = entries.get(entity);
+            if (!e.layer.containsObject(entity)) {
+                // Despawned without untrack(); drop it (swap-remove refills this slot).
+                entries.remove(entity);
+                tracked.remove(entity);
+                continue;
+            }
+            reassess(entity, e);
+            cursor++;
+        }
+    }
+
+    private void reassess(Entity entity, Entry e) {
+        Tier tier = classify(entity.getPosition());
+        if (tier == e.tier) {
+            return;
+        }
+        e.tier = tier;
+        e.layer.setTickGroup(entity, groupFor(tier, e));
+        if (entity instanceof LodAware aware) {
+            aware.onLodChanged(tier);
+        }
+    }
+
+    private Tier classify(Vector2i pos) {
+        Camera cam = scene.getCamera();
+        Config config = scene.getConfig();
+        // Chebyshev distance from the position to the viewport rectangle (0 if inside).
+        int dx = Math.max(0, Math.max(cam.getX() - pos.x(), pos.x() - (cam.getX() + cam.getWidth() - 1)));
+        int dy = Math.max(0, Math.max(cam.getY() - pos.y(), pos.y() - (cam.getY() + cam.getHeight() - 1)));
+        int distance = Math.max(dx, dy);
+        if (distance <= config.LOD_NEAR_DISTANCE) {
+            return Tier.NEAR;
+        }
+        if (distance <= config.LOD_MID_DISTANCE) {
+            return Tier.MID;
+        }
+        return Tier.FAR;
+    }
+
+    private TickGroup groupFor(Tier tier, Entry e) {
+        Config config = scene.getConfig();
+        return switch (tier) {
+            case NEAR -> e.nearGroup;
+            case MID -> {
+                if (midGroup == null) {
+                    midGroup = scene.ticks().group("lod-mid", config.LOD_MID_HZ);
+                }
+                yield midGroup;
+            }
+            case FAR -> {
+                if (farGroup == null) {
+                    farGroup = scene.ticks().group("lod-far", config.LOD_FAR_HZ);
+                }
+                yield farGroup;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package Engine.Scene;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TickGroup describes how often its members receive {@code update} calls.
+ * <p>
+ * Members of a rated group are spread over the ticks of one interval: with an
+ * interval of 15 ticks, each tick updates roughly 1/15th of the members, and each
+ * member sees an update every 15 ticks with a {@code dt} covering the whole
+ * interval. {@link #EVERY_TICK} members are updated by their Layer as usual and
+ * {@link #NEVER} members are only rendered, so idle objects cost nothing per tick.
+ * <p>
+ * Rated groups are created through {@link TickScheduler#group(String, double, int)}.
+ */
+public final class TickGroup {
+
+    /**
+     * Updated on every fixed step by the owning Layer (the default).
+     */
+    public static final TickGroup EVERY_TICK = new TickGroup("every-tick", 1, 0);
+
+    /**
+     * Never updated; the object is still started and rendered by its Layer.
+     */
+    public static final TickGroup NEVER = new TickGroup("never", 0, 0);
+
+    private final String name;
+    private final int interval;
+    private final int phase;
+    private final List<IndexedList<MonoBehaviour>> buckets;
+    private final Map<MonoBehaviour, Integer> bucketOf = new IdentityHashMap<>();
+    private int nextBucket = 0;
+
+    TickGroup(String name, int interval, int phase) {
+        this.name = name;
+        this.interval = interval;
+        this.phase = interval > 0 ? Math.floorMod(phase, interval) : 0;
+        this.buckets = new ArrayList<>(Math.max(0, interval));
+        for (int i = 0; i < interval; i++) {
+            buckets.add(new IndexedList<>());
+        }
+    }
+
+    /**
+     * @return The name of this group, used for debugging.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The number of ticks between two updates of a member, or 0 if never updated.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return The tick offset at which this group's first bucket runs.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return The number of objects currently scheduled in this group.
+     */
+    public int size() {
+        return bucketOf.size();
+    }
+
+    /**
+     * Whether members of this group are updated by the {@link TickScheduler}
+     * (as opposed to by their Layer, or not at all).
+     */
+    boolean isScheduled() {
+        return interval > 1;
+    }
+
+    void add(MonoBehaviour obj) {
+        if (bucketOf.containsKey(obj)) {
+            return;
+        }
+        // Round-robin assignment keeps buckets balanced so work is spread evenly.
+        int bucket = nextBucket;
+        nextBucket = (nextBucket + 1) % interval;
+        buckets.get(bucket).add(obj);
+        bucketOf.put(obj, bucket);
+    }
+
+    void remove(MonoBehaviour obj) {
+        Integer bucket = bucketOf.remove(obj);
+        if (bucket != null) {
+            buckets.get(bucket).remove(obj);
+        }
+    }
+
+    /**
+     * Returns the members due on the given tick.
+     */
+    IndexedList<MonoBehaviour> due(long tick) {
+        return buckets.get((int) Math.floorMod(tick - phase, (long) interval));
+    }
+}
@@ -0,0 +1,128 @@
+package Engine.Scene;
+
+import Engine.Input.InputAction;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives objects that belong to rated {@link TickGroup}s. The scheduler is owned
+ * by a Scene and advanced once per fixed step, after the layers have updated
+ * their every-tick objects. Only the members that are due on the current tick
+ * are visited, so the per-tick cost is proportional to the due work rather than
+ * to the total number of scheduled objects.
+ */
+public class TickScheduler {
+    private final double tickRate;
+    private final List<TickGroup> groups = new ArrayList<>();
+    private final Map<MonoBehaviour, TickGroup> membership = new IdentityHashMap<>();
+    private final List<MonoBehaviour> dueScratch = new ArrayList<>();
+    private long tick = 0;
+
+    /**
+     * Constructs a new TickScheduler.
+     *
+     * @param tickRate The fixed simulation rate in ticks per second, used to
+     *                 convert group rates into tick intervals.
+     */
+    public TickScheduler(double tickRate) {
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Creates a group updated at the given rate with no phase offset.
+     *
+     * @param name The group name.
+     * @param hz   Updates per second; values {@code <= 0} yield {@link TickGroup#NEVER}.
+     * @return The group to pass to {@link Layer#addObject(MonoBehaviour, TickGroup)}.
+     */
+    public TickGroup group(String name, double hz) {
+        return group(name, hz, 0);
+    }
+
+    /**
+     * Creates a group updated at the given rate. The phase shifts the group's
+     * buckets by a number of ticks so that several groups with the same rate do
+     * not all start on the same tick.
+     *
+     * @param name  The group name.
+     * @param hz    Updates per second; values {@code <= 0} yield {@link TickGroup#NEVER}.
+     * @param phase Tick offset of the group.
+     * @return The group to pass to {@link Layer#addObject(MonoBehaviour, TickGroup)}.
+     */
+    public TickGroup group(String name, double hz, int phase) {
+        if (hz <= 0) {
+            return TickGroup.NEVER;
+        }
+        int interval = (int) Math.max(1, Math.round(tickRate / hz));
+        if (interval == 1) {
+            return TickGroup.EVERY_TICK;
+        }
+        TickGroup g = new TickGroup(name, interval, phase);
+        groups.add(g);
+        return g;
+    }
+
+    /**
+     * Schedules an object in a rated group, moving it out of any group it was
+     * previously scheduled in.
+     */
+    void register(MonoBehaviour obj, TickGroup group) {
+        unregister(obj);
+        if (group.isScheduled()) {
+            group.add(obj);
+            membership.put(obj, group);
+        }
+    }
+
+    /**
+     * Removes an object from whichever group it is scheduled in.
+     */
+    void unregister(MonoBehaviour obj) {
+        TickGroup g = membership.remove(obj);
+        if (g != null) {
+            g.remove(obj);
+        }
+    }
+
+    /**
+     * Updates every scheduled object that is due on this tick. Each object
+     * receives a {@code dt} spanning its group's whole interval.
+     *
+     * @param dt The fixed time step of a single tick.
+     * @param ia The current input state.
+     */
+    public void tick(double dt, InputAction ia) {
+        for (TickGroup g : groups) {
+            if (g.size() == 0) {
+                continue;
+            }
+            // Copy the due bucket so members may be (un)registered from inside update.
+            dueScratch.addAll(g.due(tick));
+            double groupDt = dt * g.getInterval();
+            for (MonoBehaviour obj : dueScratch) {
+                if (membership.get(obj) == g) {
+                    obj.update(groupDt, ia);
+                }
+            }
+            dueScratch.clear();
+        }
+        tick++;
+    }
+
+    /**
+     * @return The number of ticks processed so far.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The fixed simulation rate this scheduler was created with.
+     */
+    public double getTickRate() {
+        return tickRate;
+    }
+}
@@ -3,10 +3,15 @@ package Engine.Scene;
 import Engine.Graphics.Renderer;
 import Engine.Graphics.tileengine.TETile;
 import Engine.Graphics.tileengine.Tileset;
+import Engine.Pathfinding.WalkabilityMask;
 import Engine.Utils.Vector2i;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 
 /**
  * A Layer that renders a 2D array of {@link TETile} tiles. Optionally, specific
@@ -15,9 +20,35 @@ import java.util.Set;
  */
 public class TileMap extends Layer {
 
+    /**
+     * Notified after {@link #setTile} replaced a tile with a different one, e.g. to
+     * keep pathfinding data in step with the map.
+     */
+    public interface TileListener {
+        void onTileChanged(int x, int y, TETile previous, TETile tile);
+    }
+
+    /**
+     * What the viewer knows of the map, see {@link #setFog(Fog)}.
+     */
+    public interface Fog {
+        boolean isExplored(int x, int y);
+
+        boolean isVisible(int x, int y);
+    }
+
+    // Brightness of explored tiles that are out of sight.
+    private static final double FOG_SHADE = 0.4;
+
     private final TETile[][] tiles;
     private final int width;
     private final int height;
+    private final Set<TETile> solids;
+    private final List<TileListener> tileListeners = new ArrayList<>();
+    private WalkabilityMask walkability;
+    private ToIntFunction<TETile> movementCosts;
+    private Fog fog;
+    private final Map<TETile, TETile> shadedTiles = new IdentityHashMap<>();
 
     /**
      * Creates a TileMap that simply renders the provided tiles.
@@ -43,12 +74,13 @@ public class TileMap extends Layer {
         this.width = tiles.length;
         this.height = tiles[0].length;
 
-        if (solidTiles != null && !solidTiles.isEmpty()) {
-            Set<TETile> solids = new HashSet<>(solidTiles);
+        this.solids = (solidTiles == null) ? new HashSet<>() : new HashSet<>(solidTiles);
+        if (!solids.isEmpty()) {
             for (int x = 0; x < width; x++) {
                 for (int y = 0; y < height; y++) {
                     if (solids.contains(tiles[x][y])) {
-                        addObject(new StaticTile(scene, new Vector2i(x, y)));
+                        // Static colliders have no behaviour; keep them out of the tick.
+                        addObject(new StaticTile(scene, new Vector2i(x, y)), TickGroup.NEVER);
                     }
                 }
             }
@@ -81,14 +113,76 @@ public class TileMap extends Layer {
     }
 
     /**
-     * Sets the tile at the specified coordinates and requests a redraw.
+     * @return True if the tile is one of the solid tile types given to the constructor.
+     */
+    public boolean isSolid(TETile tile) {
+        return solids.contains(tile);
+    }
+
+    /**
+     * Sets the tile at the specified coordinates and marks this layer for redraw.
      */
     public void setTile(int x, int y, TETile tile) {
         if (x < 0 || x >= width || y < 0 || y >= height) {
             return;
         }
+        TETile previous = tiles[x][y];
         tiles[x][y] = tile;
-        scene.requestRender();
+        markDirty();
+        if (previous != tile) {
+            if (walkability != null) {
+                walkability.set(x, y, movementCosts.applyAsInt(tile));
+            }
+            for (TileListener l : tileListeners) {
+                l.onTileChanged(x, y, previous, tile);
+            }
+        }
+    }
+
+    /**
+     * Builds the walkability mask of this map from a cost per tile type and keeps it
+     * up to date on {@link #setTile}. Tiles costing {@link WalkabilityMask#BLOCKED}
+     * cannot be walked on.
+     *
+     * @param costs The cost of stepping onto a tile, called for every cell now and
+     *              for every changed cell later. Tiles outside the map never reach it.
+     * @return The mask, also available from {@link #getWalkability()}.
+     */
+    public WalkabilityMask setMovementCosts(ToIntFunction<TETile> costs) {
+        WalkabilityMask mask = new WalkabilityMask(width, height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                mask.set(x, y, costs.applyAsInt(tiles[x][y]));
+            }
+        }
+        this.movementCosts = costs;
+        this.walkability = mask;
+        return mask;
+    }
+
+    /**
+     * @return The walkability mask, or null before {@link #setMovementCosts} was called.
+     */
+    public WalkabilityMask getWalkability() {
+        return walkability;
+    }
+
+    /**
+     * Hides unexplored tiles and darkens explored ones that are not visible. Pass
+     * null to draw the whole map again. The fog does not mark this layer dirty
+     * when it changes; its owner must call {@link #markDirty()}.
+     */
+    public void setFog(Fog fog) {
+        this.fog = fog;
+        markDirty();
+    }
+
+    public void addTileListener(TileListener listener) {
+        tileListeners.add(listener);
+    }
+
+    public void removeTileListener(TileListener listener) {
+        tileListeners.remove(listener);
     }
 
     @Override
@@ -111,6 +205,14 @@ public class TileMap extends Layer {
             for (int y = startY; y <= endY; y++) {
                 int screenY = y - camY;
                 TETile tile = tiles[x][y];
+                if (fog != null && tile != null) {
+                    if (!fog.isExplored(x, y)) {
+                        continue;
+                    }
+                    if (!fog.isVisible(x, y)) {
+                        tile = shadedTiles.computeIfAbsent(tile, t -> TETile.shaded(t, FOG_SHADE));
+                    }
+                }
                 if (tile != null) {
                     r.drawTile(screenX, screenY, tile);
                 }
@@ -0,0 +1,226 @@
+package Engine.Scene;
+
+/**
+ * A hierarchical timing wheel for delayed and repeating callbacks ("do X in 250 ms").
+ * <p>
+ * Time advances in whole fixed steps. The wheel has four levels of 64 slots; a timer
+ * is filed into the level that matches how far away its deadline is and moves down
+ * a level each time the level below wraps around. Scheduling and cancelling are O(1),
+ * and a tick only touches the timers that actually expire on it (plus an occasional
+ * cascade of one slot), so thousands of idle timers cost nothing per tick.
+ * <p>
+ * Callbacks run on the game thread, inside the Scene's tick.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Deadlines further away than this are parked in the top level and re-filed on cascade.
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * A handle to a scheduled callback.
+     */
+    public static final class Timer {
+        private final TimerWheel wheel;
+        private final Runnable action;
+        private final long period;
+        private long deadline;
+        private int level = -1;
+        private int slot;
+        private Timer prev;
+        private Timer next;
+        private boolean cancelled = false;
+
+        private Timer(TimerWheel wheel, Runnable action, long deadline, long period) {
+            this.wheel = wheel;
+            this.action = action;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the timer. Safe to call from inside any callback, including its own.
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                wheel.unlink(this);
+            }
+        }
+
+        /**
+         * @return True while the timer is still going to fire.
+         */
+        public boolean isActive() {
+            return !cancelled;
+        }
+    }
+
+    private final double tickRate;
+    private final Timer[][] heads = new Timer[LEVELS][SLOTS];
+    private long currentTick = 0;
+    private double pendingTicks = 0.0;
+    private int size = 0;
+
+    /**
+     * Constructs a new TimerWheel.
+     *
+     * @param tickRate The fixed simulation rate in ticks per second, used to
+     *                 convert delays in seconds into ticks.
+     */
+    public TimerWheel(double tickRate) {
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Runs an action once after the given delay.
+     *
+     * @param delaySec The delay in seconds; rounded to whole ticks, at least one.
+     * @param action   The callback to run.
+     * @return A handle that can cancel the timer.
+     */
+    public Timer schedule(double delaySec, Runnable action) {
+        return scheduleRepeating(delaySec, 0.0, action);
+    }
+
+    /**
+     * Runs an action after the given delay and then again every period until cancelled.
+     *
+     * @param delaySec  The first delay in seconds; rounded to whole ticks, at least one.
+     * @param periodSec The repeat period in seconds; {@code <= 0} means run once.
+     * @param action    The callback to run.
+     * @return A handle that can cancel the timer.
+     */
+    public Timer scheduleRepeating(double delaySec, double periodSec, Runnable action) {
+        long period = periodSec > 0 ? toTicks(periodSec) : 0L;
+        Timer t = new Timer(this, action, currentTick + toTicks(delaySec), period);
+        insert(t);
+        return t;
+    }
+
+    /**
+     * Advances the wheel by a span of simulated time, firing every timer whose
+     * deadline is reached. With the fixed step this is exactly one tick.
+     *
+     * @param dt The elapsed time in seconds.
+     */
+    public void advance(double dt) {
+        pendingTicks += dt * tickRate;
+        // Tolerate rounding so that dt == 1 / tickRate always yields one tick.
+        while (pendingTicks >= 1.0 - 1e-9) {
+            pendingTicks -= 1.0;
+            tick();
+        }
+    }
+
+    /**
+     * @return The number of timers that are still pending.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of ticks processed so far.
+     */
+    public long getTick() {
+        return currentTick;
+    }
+
+    private long toTicks(double seconds) {
+        return Math.max(1L, Math.round(seconds * tickRate));
+    }
+
+    private void tick() {
+        int index = (int) (currentTick & SLOT_MASK);
+        if (index == 0) {
+            cascade(1);
+        }
+        while (heads[0][index] != null) {
+            Timer t = heads[0][index];
+            unlink(t);
+            t.action.run();
+            if (!t.cancelled) {
+                if (t.period > 0) {
+                    t.deadline += t.period;
+                    insert(t);
+                } else {
+                    t.cancelled = true; // spent
+                }
+            }
+        }
+        currentTick++;
+    }
+
+    /**
+     * Re-files the current slot of the given level into the levels below it,
+     * cascading the level above first when this level has wrapped as well.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+        Timer t = heads[level][index];
+        heads[level][index] = null;
+        while (t != null) {
+            Timer next = t.next;
+            t.prev = t.next = null;
+            t.level = -1;
+            size--;
+            insert(t);
+            t = next;
+        }
+    }
+
+    private void insert(Timer t) {
+        long delta = t.deadline - currentTick;
+        long key = t.deadline;
+        int level;
+        if (delta < SLOTS) {
+            level = 0;
+        } else if (delta < 1L << (SLOT_BITS * 2)) {
+            level = 1;
+        } else if (delta < 1L << (SLOT_BITS * 3)) {
+            level = 2;
+        } else {
+            level = 3;
+            if (delta >= MAX_SPAN) {
+                key = currentTick + MAX_SPAN - 1;
+            }
+        }
+        int slot = (int) ((key >>> (SLOT_BITS * level)) & SLOT_MASK);
+        t.level = level;
+        t.slot = slot;
+        t.prev = null;
+        t.next = heads[level][slot];
+        if (t.next != null) {
+            t.next.prev = t;
+        }
+        heads[level][slot] = t;
+        size++;
+    }
+
+    private void unlink(Timer t) {
+        if (t.level < 0) {
+            return;
+        }
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            heads[t.level][t.slot] = t.next;
+        }
+        if (t.next != null) {
+            t.next.prev = t.prev;
+        }
+        t.prev = t.next = null;
+        t.level = -1;
+        size--;
+    }
+}
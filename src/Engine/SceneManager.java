@@ -1,9 +1,16 @@
 package Engine;
 
+import Engine.Profiling.FrameMetrics;
+import Engine.Profiling.SceneTransitionEvent;
 import Engine.Scene.Scene;
 import Engine.Scene.SceneTransition;
 
 import java.util.Stack;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Manages the stack of scenes, handling transitions and lifecycle events.
@@ -11,9 +18,30 @@ import java.util.Stack;
 public class SceneManager {
     private final Stack<Scene> scenes = new Stack<>();
     private final Config config;
+    private final FrameMetrics metrics;
+
+    // Runs asynchronous loads, one virtual thread per load, shared by every SceneManager in the
+    // JVM. Nothing is left parked between loads, so it never needs to be shut down.
+    private static final ExecutorService LOADER =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scene-loader").factory());
+
+    // Asynchronous load in flight: the scene being prepared and the loading scene pushed over the
+    // scene it replaces, which stays paused underneath until the swap.
+    private Future<?> pendingLoad;
+    private Scene pendingScene;
+    private Scene loadingScene;
 
     public SceneManager(Config config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config  The engine configuration handed to every scene.
+     * @param metrics The engine's phase timers handed to every scene, may be null.
+     */
+    public SceneManager(Config config, FrameMetrics metrics) {
         this.config = config;
+        this.metrics = metrics;
     }
 
     /**
@@ -26,7 +54,8 @@ public class SceneManager {
             scenes.peek().onPause();
         }
         scenes.push(scene);
-        scene.setConfig(this.config);
+        attach(scene);
+        scene.prepare();
         scene.onStart();
     }
 
@@ -48,13 +77,36 @@ public class SceneManager {
      * @param scene The new scene.
      */
     void replace(Scene scene) {
-        if (!scenes.isEmpty()) {
-            scenes.peek().onDestroy();
-            scenes.pop();
+        attach(scene);
+        scene.prepare();
+        swapIn(scene);
+    }
+
+    /**
+     * Pushes a loading scene over the current one and prepares the new scene on a
+     * worker thread. Once its preparation has finished, {@link #handleTransition()}
+     * replaces both with the new scene. If preparation fails, the loading scene is
+     * popped and the paused scene underneath resumes.
+     *
+     * @param scene   The new scene.
+     * @param loading The scene to show while the new scene is being prepared.
+     */
+    void replaceAsync(Scene scene, Scene loading) {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+            if (!scenes.isEmpty() && scenes.peek() == loadingScene) {
+                pop(); // the new loading scene takes its place over the same paused scene
+            }
+        }
+        push(loading);
+        attach(scene);
+        pendingScene = scene;
+        loadingScene = loading;
+        pendingLoad = LOADER.submit(scene::prepare);
+        if (config.DETERMINISTIC) {
+            awaitPendingLoad(); // the swap must not depend on how fast the loader thread is
         }
-        scenes.push(scene);
-        scene.setConfig(this.config);
-        scene.onStart();
     }
 
     /**
@@ -67,22 +119,69 @@ public class SceneManager {
     }
 
     /**
-     * Checks for and handles scene transitions requested by the current scene.
+     * Checks for and handles scene transitions requested by the current scene, and
+     * completes a pending asynchronous load once it is ready.
      */
     public void handleTransition() {
         if (scenes.isEmpty()) {
             return;
         }
+        if (pendingLoad != null && pendingLoad.isDone()) {
+            SceneTransitionEvent event = beginTransitionEvent();
+            completeLoad();
+            commitTransitionEvent(event, "LoadComplete");
+            return;
+        }
         SceneTransition transition = scenes.peek().pollTransition();
         if (transition != null) {
+            SceneTransitionEvent event = beginTransitionEvent();
             switch (transition) {
                 case SceneTransition.Push push -> push(push.next());
                 case SceneTransition.Pop pop -> pop();
                 case SceneTransition.Replace replace -> replace(replace.next());
+                case SceneTransition.ReplaceAsync async -> replaceAsync(async.next(), async.loading());
             }
+            commitTransitionEvent(event, transition.getClass().getSimpleName());
+        }
+    }
+
+    private SceneTransitionEvent beginTransitionEvent() {
+        SceneTransitionEvent event = new SceneTransitionEvent();
+        if (event.isEnabled()) {
+            event.from = scenes.isEmpty() ? null : scenes.peek().getClass().getSimpleName();
+        }
+        event.begin();
+        return event;
+    }
+
+    private void commitTransitionEvent(SceneTransitionEvent event, String kind) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.to = scenes.isEmpty() ? null : scenes.peek().getClass().getSimpleName();
+            event.commit();
         }
     }
 
+    /**
+     * Blocks until a pending asynchronous load has finished and swaps the prepared
+     * scene in. Used by runners that do not need a responsive loading screen.
+     */
+    void awaitPendingLoad() {
+        if (pendingLoad == null) {
+            return;
+        }
+        try {
+            pendingLoad.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // Reported by completeLoad().
+        }
+        completeLoad();
+    }
+
     /**
      * Checks if there are any scenes on the stack.
      *
@@ -91,4 +190,50 @@ public class SceneManager {
     public boolean hasScene() {
         return !scenes.isEmpty();
     }
+
+    private void completeLoad() {
+        boolean failed = false;
+        try {
+            pendingLoad.get(); // rethrows failures and publishes the worker's writes to this thread
+        } catch (InterruptedException e) {
+            // Keep the load pending; the next handleTransition() completes it.
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            failed = true;
+        } catch (CancellationException e) {
+            e.printStackTrace();
+            failed = true;
+        }
+        Scene next = pendingScene;
+        Scene loading = loadingScene;
+        pendingLoad = null;
+        pendingScene = null;
+        loadingScene = null;
+
+        if (scenes.isEmpty() || scenes.peek() != loading) {
+            return;
+        }
+        if (failed) {
+            pop(); // back to the scene that asked for the load
+            return;
+        }
+        scenes.pop().onDestroy();
+        swapIn(next);
+    }
+
+    private void attach(Scene scene) {
+        scene.setConfig(this.config);
+        scene.setMetrics(this.metrics);
+    }
+
+    private void swapIn(Scene scene) {
+        if (!scenes.isEmpty()) {
+            scenes.peek().onDestroy();
+            scenes.pop();
+        }
+        scenes.push(scene);
+        scene.onStart();
+    }
 }
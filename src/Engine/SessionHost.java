@@ -0,0 +1,157 @@
+package Engine;
+
+import Engine.Input.InputAction;
+import Engine.Scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hosts many independent game sessions in one JVM, for bots and AI evaluation.
+ * Each session is a {@link HeadlessRunner} with its own scene stack and its own
+ * input source; sessions share nothing but immutable assets.
+ * <p>
+ * {@link #runAll(long)} gives every session a virtual thread. The virtual thread
+ * scheduler spreads them over one carrier thread per core, and each session yields
+ * after every slice of ticks so that hundreds of sessions progress evenly. Initial
+ * scenes are prepared on those threads too, so map generation for many sessions
+ * runs in parallel rather than one after the other on the caller's thread.
+ */
+public class SessionHost {
+    private static final int SLICE_TICKS = 64;
+
+    /**
+     * The outcome of {@link #runAll(long)}.
+     *
+     * @param sessions     One report per session, in the order they were added; null if the session failed.
+     * @param elapsedNanos The wall-clock time of the whole run.
+     */
+    public record Summary(List<HeadlessRunner.Report> sessions, long elapsedNanos) {
+        /**
+         * @return Ticks performed by all sessions together.
+         */
+        public long totalTicks() {
+            long total = 0;
+            for (HeadlessRunner.Report report : sessions) {
+                if (report != null) {
+                    total += report.ticks();
+                }
+            }
+            return total;
+        }
+
+        /**
+         * @return Ticks performed by all sessions together per wall-clock second.
+         */
+        public double ticksPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : totalTicks() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sessions, %d ticks in %.1f ms: %.0f ticks/s",
+                    sessions.size(), totalTicks(), elapsedNanos / 1e6, ticksPerSecond());
+        }
+    }
+
+    private static final class Session {
+        final HeadlessRunner runner;
+        final InputAction input;
+        Scene initialScene; // registered by the first runAll, then null
+
+        Session(HeadlessRunner runner, InputAction input, Scene initialScene) {
+            this.runner = runner;
+            this.input = input;
+            this.initialScene = initialScene;
+        }
+    }
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    /**
+     * Adds a session. The initial scene is prepared and started by the next
+     * {@link #runAll(long)}, on the session's own thread.
+     *
+     * @param config       The session's configuration; may be shared if no scene modifies it.
+     * @param initialScene The first scene of the session. Must not be shared.
+     * @param input        The session's input; must not depend on a window.
+     * @return The index of the session.
+     */
+    public int add(Config config, Scene initialScene, InputAction input) {
+        sessions.add(new Session(new HeadlessRunner(config), input, initialScene));
+        return sessions.size() - 1;
+    }
+
+    /**
+     * Runs every session for the given number of ticks, concurrently. A session whose
+     * scene stack empties stops early. The elapsed time includes preparing the initial
+     * scenes of sessions that run for the first time.
+     *
+     * @param ticks The number of ticks per session.
+     * @return The per-session reports and the overall throughput.
+     */
+    public Summary runAll(long ticks) {
+        long start = System.nanoTime();
+        List<Future<HeadlessRunner.Report>> futures = new ArrayList<>(sessions.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Session session : sessions) {
+                futures.add(executor.submit(() -> runSliced(session, ticks)));
+            }
+        } // close() waits for every session to finish
+
+        List<HeadlessRunner.Report> reports = new ArrayList<>(futures.size());
+        for (Future<HeadlessRunner.Report> future : futures) {
+            try {
+                reports.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reports.add(null);
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                reports.add(null);
+            }
+        }
+        return new Summary(reports, System.nanoTime() - start);
+    }
+
+    /**
+     * @param index The index returned by {@link #add(Config, Scene, InputAction)}.
+     * @return The scene on top of that session's stack, or null if it has not run yet or has ended.
+     */
+    public Scene getCurrentScene(int index) {
+        return sessions.get(index).runner.getCurrentScene();
+    }
+
+    /**
+     * @return The number of sessions.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private static HeadlessRunner.Report runSliced(Session session, long ticks) {
+        long start = System.nanoTime();
+        if (session.initialScene != null) {
+            Scene scene = session.initialScene;
+            session.initialScene = null;
+            session.runner.register(scene);
+        }
+        long done = 0;
+        double simSeconds = 0;
+        while (done < ticks) {
+            long slice = Math.min(SLICE_TICKS, ticks - done);
+            HeadlessRunner.Report report = session.runner.run(slice, session.input);
+            done += report.ticks();
+            simSeconds += report.simSeconds();
+            if (report.ticks() < slice) {
+                break; // scene stack emptied
+            }
+            Thread.yield();
+        }
+        return new HeadlessRunner.Report(done, System.nanoTime() - start, simSeconds);
+    }
+}
@@ -3,17 +3,18 @@ package Engine.Utils;
 import Engine.Graphics.tileengine.TETile;
 
 import java.awt.Color;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A factory and cache for font character tiles.
  * This class lazily creates and caches TETile objects for character-color combinations
- * to avoid creating new tile objects every frame.
+ * to avoid creating new tile objects every frame. The cache is shared by every
+ * engine in the process and is safe to use from several threads.
  */
 public class Font {
     // A two-level cache: Character -> { Color -> TETile }
-    private static final Map<Character, Map<Color, TETile>> FONT_CACHE = new HashMap<>();
+    private static final Map<Character, Map<Color, TETile>> FONT_CACHE = new ConcurrentHashMap<>();
 
     /**
      * Retrieves a TETile for a given character and color.
@@ -25,13 +26,17 @@ public class Font {
      * @return A cached or newly created TETile.
      */
     public static TETile getTile(char character, Color color) {
-        // Check if the character is cached. If not, create a new map for it.
-        FONT_CACHE.computeIfAbsent(character, k -> new HashMap<>());
-
-        // Get the color map for the character.
+        // Fast path: plain lookups, no lambda allocation once the tile exists.
         Map<Color, TETile> colorMap = FONT_CACHE.get(character);
+        if (colorMap != null) {
+            TETile tile = colorMap.get(color);
+            if (tile != null) {
+                return tile;
+            }
+        } else {
+            colorMap = FONT_CACHE.computeIfAbsent(character, k -> new ConcurrentHashMap<>());
+        }
 
-        // Check if the color is cached for this character. If not, create and cache it.
         // The background is assumed to be black and the description is "char".
         return colorMap.computeIfAbsent(color, k -> new TETile(character, color, Color.BLACK, "char", -1));
     }
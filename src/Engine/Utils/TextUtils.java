@@ -27,6 +27,23 @@ public class TextUtils {
         }
     }
 
+    /**
+     * Draws the first {@code length} characters of a buffer. Unlike the String overloads
+     * this lets callers reuse one buffer for text that changes every frame.
+     *
+     * @param r      The Renderer to use.
+     * @param text   The characters to draw.
+     * @param length How many characters of the buffer to draw.
+     * @param x      The starting x-coordinate.
+     * @param y      The starting y-coordinate.
+     * @param color  The color of the text.
+     */
+    public static void drawText(Renderer r, char[] text, int length, int x, int y, Color color) {
+        for (int i = 0; i < length; i++) {
+            r.drawTile(x + i, y, Font.getTile(text[i], color));
+        }
+    }
+
     /**
      * Draws a string of text at the specified (x, y) position with a default color (white).
      *
@@ -0,0 +1,73 @@
+package Engine.Vision;
+
+/**
+ * The cells visible from one origin within a radius, as computed by
+ * {@link Visibility#fov(int, int, int)}. It covers the square of side
+ * {@code 2 * radius + 1} around the origin with one bit per cell. Instances are
+ * shared through the cache and must not be kept across map changes; ask the
+ * {@link Visibility} again instead.
+ */
+public final class FieldOfView {
+    private final int originX;
+    private final int originY;
+    private final int radius;
+    private final int side;
+    private final long[] bits;
+    private int count = 0;
+
+    FieldOfView(int originX, int originY, int radius) {
+        this.originX = originX;
+        this.originY = originY;
+        this.radius = radius;
+        this.side = 2 * radius + 1;
+        this.bits = new long[(side * side + 63) >>> 6];
+    }
+
+    void mark(int x, int y) {
+        int i = (y - originY + radius) * side + (x - originX + radius);
+        long bit = 1L << i;
+        if ((bits[i >>> 6] & bit) == 0) {
+            bits[i >>> 6] |= bit;
+            count++;
+        }
+    }
+
+    /**
+     * @return True if the world cell is visible from the origin.
+     */
+    public boolean isVisible(int x, int y) {
+        int lx = x - originX + radius;
+        int ly = y - originY + radius;
+        if (lx < 0 || ly < 0 || lx >= side || ly >= side) {
+            return false;
+        }
+        int i = ly * side + lx;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @return True if the cell lies within the square this field covers.
+     */
+    boolean covers(int x, int y) {
+        return Math.abs(x - originX) <= radius && Math.abs(y - originY) <= radius;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return The number of visible cells, the origin included.
+     */
+    public int getVisibleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,190 @@
+package Engine.Vision;
+
+import Engine.Scene.TileMap;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * What one viewer has explored and can currently see, for drawing a fog of war
+ * (see {@link TileMap#setFog(TileMap.Fog)}).
+ * <p>
+ * Two bits per tile: one for explored, one for visible, each packed in a
+ * {@code long[]}. A 10k x 10k world takes 25 MB. {@link #update(int, int)} is called
+ * each tick with the viewer's cell. It does nothing unless the viewer's field of view
+ * changed, and otherwise only touches the square around the old and new position,
+ * never the whole map. Fields of view come from a shared {@link Visibility}, so
+ * walls stay visible and what lies behind them stays unexplored.
+ * <p>
+ * The explored bits can be saved with {@link #exportExplored()}; visibility is
+ * recomputed from the viewer's position after loading.
+ */
+public class FogOfWar implements TileMap.Fog {
+
+    private final Visibility vision;
+    private final int radius;
+    private final int width;
+    private final int height;
+    private final long[] explored;
+    private final long[] visible;
+    private FieldOfView current = null;
+    private int exploredCount = 0;
+
+    /**
+     * @param vision The visibility of the map the viewer moves on.
+     * @param radius How far the viewer sees, in tiles.
+     */
+    public FogOfWar(Visibility vision, int radius) {
+        this.vision = vision;
+        this.radius = radius;
+        this.width = vision.getWidth();
+        this.height = vision.getHeight();
+        int words = (int) (((long) width * height + 63) >>> 6);
+        this.explored = new long[words];
+        this.visible = new long[words];
+    }
+
+    /**
+     * Moves the viewer. Cheap when neither the viewer nor the walls around it changed.
+     *
+     * @return True if the visible tiles changed, i.e. the map needs to be redrawn.
+     */
+    public boolean update(int x, int y) {
+        FieldOfView fov = vision.fov(x, y, radius);
+        if (fov == current) {
+            return false;
+        }
+        if (current != null) {
+            paint(current, false);
+        }
+        paint(fov, true);
+        current = fov;
+        return true;
+    }
+
+    @Override
+    public boolean isExplored(int x, int y) {
+        return test(explored, x, y);
+    }
+
+    @Override
+    public boolean isVisible(int x, int y) {
+        return test(visible, x, y);
+    }
+
+    /**
+     * @return The number of explored tiles.
+     */
+    public int getExploredCount() {
+        return exploredCount;
+    }
+
+    /**
+     * Reveals every tile, e.g. for a debug view.
+     */
+    public void revealAll() {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                explore(y * width + x);
+            }
+        }
+    }
+
+    /**
+     * @return The explored bits, deflated; large unexplored or fully explored areas
+     * compress to almost nothing.
+     */
+    public byte[] exportExplored() {
+        ByteBuffer raw = ByteBuffer.allocate(explored.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        raw.asLongBuffer().put(explored);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(raw.array());
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Restores explored bits written by {@link #exportExplored()} for a map of the same size.
+     *
+     * @throws IllegalArgumentException If the data is corrupt or from a map of another size.
+     */
+    public void importExplored(byte[] data) {
+        byte[] raw = new byte[explored.length * Long.BYTES];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, raw.length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != raw.length || !inflater.finished()) {
+                throw new IllegalArgumentException("Fog data does not match a " + width + " x " + height + " map");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt fog data", e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(explored);
+        exploredCount = 0;
+        for (long word : explored) {
+            exploredCount += Long.bitCount(word);
+        }
+        if (current != null) {
+            paint(current, true); // what is in sight now stays explored
+        }
+    }
+
+    // Sets or clears the visible bits of a field; setting also explores.
+    private void paint(FieldOfView fov, boolean on) {
+        int r = fov.getRadius();
+        int minX = Math.max(0, fov.getOriginX() - r);
+        int maxX = Math.min(width - 1, fov.getOriginX() + r);
+        int minY = Math.max(0, fov.getOriginY() - r);
+        int maxY = Math.min(height - 1, fov.getOriginY() + r);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (!fov.isVisible(x, y)) {
+                    continue;
+                }
+                int i = y * width + x;
+                if (on) {
+                    visible[i >>> 6] |= 1L << i;
+                    explore(i);
+                } else {
+                    visible[i >>> 6] &= ~(1L << i);
+                }
+            }
+        }
+    }
+
+    private void explore(int i) {
+        long bit = 1L << i;
+        if ((explored[i >>> 6] & bit) == 0) {
+            explored[i >>> 6] |= bit;
+            exploredCount++;
+        }
+    }
+
+    private boolean test(long[] bits, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
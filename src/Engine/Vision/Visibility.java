@@ -0,0 +1,250 @@
+package Engine.Vision;
+
+import Engine.Graphics.tileengine.TETile;
+import Engine.Scene.TileMap;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Field of view and line of sight over the solid tiles of a {@link TileMap}.
+ * <p>
+ * {@link #fov(int, int, int)} runs recursive shadowcasting: each of the eight
+ * octants is scanned row by row outwards from the origin, and a run of solid cells
+ * narrows the slopes the rows further out are scanned between. Each cell is looked
+ * at about once, and the visible area is circular. Solid cells that are lit are
+ * visible themselves, so walls show up; cells outside the map block sight.
+ * <p>
+ * Results are cached per (origin, radius), so agents that stand still, or share a
+ * cell, cost a lookup instead of a scan. When a tile changes between solid and not
+ * solid, only the cached fields whose square contains it are dropped. The least
+ * recently used fields are evicted once {@link #DEFAULT_CAPACITY} are held.
+ * <p>
+ * {@link #hasLineOfSight(int, int, int, int)} walks a Bresenham line instead. It is
+ * cheaper for a single target but not always symmetric with the field of view
+ * around corners; use one of the two consistently for one kind of check.
+ * <p>
+ * Not thread-safe; use it from the game thread.
+ */
+public class Visibility {
+
+    /** The number of cached fields kept by default. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // Octant transforms {xx, xy, yx, yy}: world = origin + (dx * xx + dy * xy, dx * yx + dy * yy).
+    private static final int[][] OCTANTS = {
+            {1, 0, 0, 1}, {0, 1, 1, 0}, {0, -1, 1, 0}, {-1, 0, 0, 1},
+            {-1, 0, 0, -1}, {0, -1, -1, 0}, {0, 1, -1, 0}, {1, 0, 0, -1}
+    };
+
+    private final TileMap map;
+    private final int width;
+    private final int height;
+    private final long[] opaque;
+    private final Map<Long, FieldOfView> cache;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Reads the solidity of every tile now and follows later {@link TileMap#setTile} calls.
+     */
+    public Visibility(TileMap map) {
+        this(map, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of fields of view kept in the cache.
+     */
+    public Visibility(TileMap map, int capacity) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.opaque = new long[(width * height + 63) >>> 6];
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FieldOfView> eldest) {
+                return size() > capacity;
+            }
+        };
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (map.isSolid(map.getTile(x, y))) {
+                    int i = y * width + x;
+                    opaque[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        map.addTileListener(this::onTileChanged);
+    }
+
+    /**
+     * Returns the cells visible from the origin within the radius, from the cache if
+     * they were computed before and nothing in range changed since.
+     */
+    public FieldOfView fov(int x, int y, int radius) {
+        long key = ((long) (y * width + x) << 20) | (radius & 0xFFFFF);
+        FieldOfView fov = cache.get(key);
+        if (fov != null) {
+            hits++;
+            return fov;
+        }
+        misses++;
+        fov = new FieldOfView(x, y, radius);
+        if (inBounds(x, y)) {
+            fov.mark(x, y);
+            for (int[] o : OCTANTS) {
+                castLight(fov, 1, 1.0, 0.0, o[0], o[1], o[2], o[3]);
+            }
+        }
+        cache.put(key, fov);
+        return fov;
+    }
+
+    /**
+     * @return True if the target lies within the radius and in the field of view of the origin.
+     */
+    public boolean canSee(int fromX, int fromY, int toX, int toY, int radius) {
+        int dx = toX - fromX;
+        int dy = toY - fromY;
+        if (dx * dx + dy * dy > radius * radius) {
+            return false;
+        }
+        return fov(fromX, fromY, radius).isVisible(toX, toY);
+    }
+
+    /**
+     * Walks the Bresenham line between two cells. Only the cells strictly between
+     * the endpoints may block, so a solid target (a wall) can be seen.
+     *
+     * @return True if no solid cell lies between the two.
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        int x = x0;
+        int y = y0;
+        while (true) {
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y += sy;
+            }
+            if (x == x1 && y == y1) {
+                return true;
+            }
+            if (isOpaque(x, y)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return True if the cell blocks sight; cells outside the map do.
+     */
+    public boolean isOpaque(int x, int y) {
+        if (!inBounds(x, y)) {
+            return true;
+        }
+        int i = y * width + x;
+        return (opaque[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getCacheHits() {
+        return hits;
+    }
+
+    public long getCacheMisses() {
+        return misses;
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    private void onTileChanged(int x, int y, TETile previous, TETile tile) {
+        boolean solid = map.isSolid(tile);
+        if (solid == map.isSolid(previous)) {
+            return;
+        }
+        int i = y * width + x;
+        if (solid) {
+            opaque[i >>> 6] |= 1L << i;
+        } else {
+            opaque[i >>> 6] &= ~(1L << i);
+        }
+        Iterator<FieldOfView> it = cache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().covers(x, y)) {
+                it.remove();
+            }
+        }
+    }
+
+    // Scans rows [row, radius] of one octant between two slopes, from start down
+    // to end (1 is the diagonal, 0 straight ahead).
+    private void castLight(FieldOfView fov, int row, double start, double end,
+                           int xx, int xy, int yx, int yy) {
+        if (start < end) {
+            return;
+        }
+        int radius = fov.getRadius();
+        int ox = fov.getOriginX();
+        int oy = fov.getOriginY();
+        int radiusSq = radius * radius;
+        double newStart = 0.0;
+        for (int j = row; j <= radius; j++) {
+            int dy = -j;
+            boolean blocked = false;
+            for (int dx = -j; dx <= 0; dx++) {
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) {
+                    continue;
+                } else if (end > leftSlope) {
+                    break;
+                }
+                int x = ox + dx * xx + dy * xy;
+                int y = oy + dx * yx + dy * yy;
+                if (dx * dx + dy * dy <= radiusSq && inBounds(x, y)) {
+                    fov.mark(x, y);
+                }
+                boolean opaqueCell = isOpaque(x, y);
+                if (blocked) {
+                    if (opaqueCell) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaqueCell && j < radius) {
+                    blocked = true;
+                    castLight(fov, j + 1, start, leftSlope, xx, xy, yx, yy);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) {
+                break;
+            }
+        }
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+}